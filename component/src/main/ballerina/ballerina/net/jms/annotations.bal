@@ -15,4 +15,46 @@ public annotation configuration attach service<> {
     string connectionUsername;
     string connectionPassword;
     string[] properties;
+    int batchSize;
+    int batchTimeoutMs;
+    int ackBatchSize;
+    int ackIntervalMs;
+    int commitBatchSize;
+    int commitIntervalMs;
+    string dispatchMode;
+    int maxConcurrentDispatches;
+    int maxInFlight;
+    int maxInFlightBytes;
+    int inFlightResumePercent;
+    int orderedLanes;
+    string orderingKey;
+    int minConcurrentConsumers;
+    int maxConcurrentConsumers;
+    string localSelector;
+    int redeliveryDelayMs;
+    float redeliveryMultiplier;
+    int maxRedeliveryDelayMs;
+    int maxRedeliveries;
+    string deadLetterDestination;
+    int deduplicationWindowMs;
+    string deduplicationKey;
+    int deduplicationCapacity;
+    boolean deduplicationBloomFilter;
+    int drainTimeoutMs;
+    int maxReconnectIntervalMs;
+    boolean shareConnection;
+    string consumerMode;
+    int pollBatchSize;
+    int pollTimeoutMs;
+    int maxConcurrentInvocations;
+    int schedulingWeight;
+    boolean inMemoryRedelivery;
+    int maxPendingRedeliveries;
+}
+
+public annotation route attach resource {
+    string messageType;
+    string property;
+    string value;
+    string selector;
 }
@@ -30,6 +30,10 @@ public native function <JMSMessage msg> commit ();
 @Field {value:"connectionCount: Number of pooled connections to be used in the transport level (default: 5)"}
 @Field {value:"sessionCount: Number of pooled sessions to be used per connection in the transport level (default: 10)"}
 @Field {value:"properties: Additional Properties"}
+@Field {value:"maxPendingSends: Maximum number of asynchronous sends in flight (default: 1000)"}
+@Field {value:"batchSize: Number of concurrent sends to the same destination committed together (default: 1, no batching)"}
+@Field {value:"lingerMs: Maximum time in milliseconds a send waits for its batch to fill (default: 5)"}
+@Field {value:"warmUpDestinations: Destinations to be looked up when the connector is initialized"}
 public struct ClientProperties {
     string initialContextFactory;
     string providerUrl;
@@ -43,6 +47,10 @@ public struct ClientProperties {
     int connectionCount = 5;
     int sessionCount = 10;
     map properties;
+    int maxPendingSends = 1000;
+    int batchSize = 1;
+    int lingerMs = 5;
+    string[] warmUpDestinations;
 }
 
 @Description { value:"JMS client connector to send messages to the JMS provider."}
@@ -51,11 +59,27 @@ public connector JmsClient (ClientProperties clientProperties) {
 
     string connectorID = "EMPTY_ID";
 
-    @Description {value:"SEND action implementation of the JMS Connector"}
+    @Description {value:"SEND action implementation of the JMS Connector. When batchSize is greater than 1 and client caching is enabled, concurrent sends to the same destination are committed together in a local transaction and the action completes once its batch is committed, waiting at most lingerMs for a batch to fill"}
     @Param {value:"destinationName: Destination Name"}
     @Param {value:"message: Message"}
     native action send (string destinationName, JMSMessage m);
 
+    @Description {value:"Batch SEND action implementation of the JMS Connector. The messages are sent using a single session"}
+    @Param {value:"destinationName: Destination Name"}
+    @Param {value:"messages: Messages to be sent"}
+    @Param {value:"transacted: Commit the batch as a single local transaction (requires SESSION_TRANSACTED acknowledgement mode)"}
+    @Return {value:"string[]: Delivery status (SUCCESS or ERROR) of each message"}
+    native action sendBatch (string destinationName, JMSMessage[] messages, boolean transacted) (string[]);
+
+    @Description {value:"Asynchronous SEND action implementation of the JMS Connector. The message should not be modified until the action completes. At most maxPendingSends asynchronous sends of the connector are in flight, further calls wait for a free slot"}
+    @Param {value:"destinationName: Destination Name"}
+    @Param {value:"message: Message"}
+    native action sendAsync (string destinationName, JMSMessage m);
+
+    @Description {value:"Check whether the connections and sessions of the connector, and the warmUpDestinations, have been created. The connector initialization creates them in the background when client caching is enabled"}
+    @Return {value:"boolean: true once the warm-up is over"}
+    native action isReady () (boolean);
+
 }
 
 
@@ -67,6 +91,13 @@ public native function createTextMessage (ClientProperties jmsClient) (JMSMessag
 @Param { value:"jmsClient: clientConnector" }
 public native function createBytesMessage (ClientProperties jmsClient) (JMSMessage);
 
+@Description { value:"Get the reconnection statistics of a running JMS service"}
+@Param { value:"serviceName: Name of the service" }
+@Return { value:"int: Number of reconnection attempts of the consumers of the service so far" }
+@Return { value:"int: Number of successful reconnections of the consumers of the service so far" }
+@Return { value:"int: Time in milliseconds the latest successful reconnection took since the connection was lost" }
+public native function getReconnectionStats (string serviceName) (int, int, int);
+
 @Description { value:"Value for persistent JMS message delivery mode"}
 public const int PERSISTENT_DELIVERY_MODE = 2;
 
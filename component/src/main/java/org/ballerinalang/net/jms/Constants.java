@@ -38,6 +38,10 @@ public class Constants {
      * JMSSource annotation name which is used to define a JMS server connector.
      */
     public static final String ANNOTATION_JMS_CONFIGURATION = "configuration";
+    /**
+     * Resource annotation which routes the messages of a JMS service with several resources.
+     */
+    public static final String ANNOTATION_JMS_ROUTE = "route";
 
     // jms protocol name
     public static final String PROTOCOL_JMS = "jms";
@@ -72,6 +76,195 @@ public class Constants {
     public static final String ALIAS_ACK_MODE = "acknowledgementMode";
     public static final String ALIAS_CLIENT_ID = "clientId";
     public static final String ALIAS_DURABLE_SUBSCRIBER_ID = "subscriptionId";
+    /**
+     * Maximum number of messages dispatched at once to a resource accepting a message array.
+     */
+    public static final String ALIAS_BATCH_SIZE = "batchSize";
+    /**
+     * Time in milliseconds a partially filled batch waits before it is dispatched.
+     */
+    public static final String ALIAS_BATCH_TIMEOUT = "batchTimeoutMs";
+    /**
+     * Number of processed messages acknowledged together in the client acknowledgement mode.
+     */
+    public static final String ALIAS_ACK_BATCH_SIZE = "ackBatchSize";
+    /**
+     * Maximum time in milliseconds the acknowledgement of a processed message is deferred.
+     */
+    public static final String ALIAS_ACK_INTERVAL = "ackIntervalMs";
+    /**
+     * Number of processed messages committed together in the session transacted mode.
+     */
+    public static final String ALIAS_COMMIT_BATCH_SIZE = "commitBatchSize";
+    /**
+     * Maximum time in milliseconds the commit of a processed message is deferred.
+     */
+    public static final String ALIAS_COMMIT_INTERVAL = "commitIntervalMs";
+    /**
+     * How the resource invocations of a service are dispatched, see {@link #DISPATCH_MODE_TRANSPORT} and
+     * {@link #DISPATCH_MODE_VIRTUAL_THREAD}.
+     */
+    public static final String ALIAS_DISPATCH_MODE = "dispatchMode";
+    /**
+     * Maximum number of resource invocations of a service in flight in the virtual thread dispatch mode.
+     */
+    public static final String ALIAS_MAX_CONCURRENT_DISPATCHES = "maxConcurrentDispatches";
+    /**
+     * Maximum number of messages of a service whose resource invocations are not over yet.
+     */
+    public static final String ALIAS_MAX_IN_FLIGHT = "maxInFlight";
+    /**
+     * Maximum total body size in bytes of the messages of a service whose resource invocations are not over yet.
+     */
+    public static final String ALIAS_MAX_IN_FLIGHT_BYTES = "maxInFlightBytes";
+    /**
+     * Percentage of the in-flight limits a paused service has to drain below before its consumers resume.
+     */
+    public static final String ALIAS_IN_FLIGHT_RESUME_PERCENT = "inFlightResumePercent";
+    /**
+     * {@code JMSType} of the messages routed to a resource.
+     */
+    public static final String ALIAS_ROUTE_MESSAGE_TYPE = "messageType";
+    /**
+     * Message property whose value routes the messages to a resource.
+     */
+    public static final String ALIAS_ROUTE_PROPERTY = "property";
+    /**
+     * Value of the {@link #ALIAS_ROUTE_PROPERTY} of the messages routed to a resource.
+     */
+    public static final String ALIAS_ROUTE_VALUE = "value";
+    /**
+     * Message selector of the messages routed to a resource, evaluated by the connector.
+     */
+    public static final String ALIAS_ROUTE_SELECTOR = "selector";
+    /**
+     * Message selector evaluated by the connector for every message of a service. Messages which do not match are
+     * completed without invoking the resource.
+     */
+    public static final String ALIAS_LOCAL_SELECTOR = "localSelector";
+    /**
+     * Lower bound of the number of consumers of a service whose consumers are scaled with its load.
+     */
+    public static final String ALIAS_MIN_CONCURRENT_CONSUMERS = "minConcurrentConsumers";
+    /**
+     * Upper bound of the number of consumers of a service, which enables scaling its consumers with its load.
+     */
+    public static final String ALIAS_MAX_CONCURRENT_CONSUMERS = "maxConcurrentConsumers";
+    /**
+     * Number of serial lanes the messages of a service are spread over by their ordering key, for a single push
+     * consumer in the auto acknowledgement modes.
+     */
+    public static final String ALIAS_ORDERED_LANES = "orderedLanes";
+    /**
+     * Message property the messages of a service are ordered by, {@link #DEFAULT_ORDERING_KEY} if not set.
+     */
+    public static final String ALIAS_ORDERING_KEY = "orderingKey";
+    /**
+     * Default ordering key, i.e. the JMS message group.
+     */
+    public static final String DEFAULT_ORDERING_KEY = "JMSXGroupID";
+    /**
+     * Delay in milliseconds before the first local redelivery of a failed message, which enables the redelivery
+     * policy of a service.
+     */
+    public static final String ALIAS_REDELIVERY_DELAY = "redeliveryDelayMs";
+    /**
+     * Factor the redelivery delay grows by on every redelivery of a message.
+     */
+    public static final String ALIAS_REDELIVERY_MULTIPLIER = "redeliveryMultiplier";
+    /**
+     * Upper bound of the redelivery delay in milliseconds.
+     */
+    public static final String ALIAS_MAX_REDELIVERY_DELAY = "maxRedeliveryDelayMs";
+    /**
+     * Number of local redeliveries of a failed message before it is dead lettered.
+     */
+    public static final String ALIAS_MAX_REDELIVERIES = "maxRedeliveries";
+    /**
+     * Queue the failed messages of a service are forwarded to after their last redelivery.
+     */
+    public static final String ALIAS_DEAD_LETTER_DESTINATION = "deadLetterDestination";
+    /**
+     * Whether the failed messages of a service may be acknowledged towards the broker and held in memory until their
+     * redelivery, which loses them if the process crashes meanwhile.
+     */
+    public static final String ALIAS_IN_MEMORY_REDELIVERY = "inMemoryRedelivery";
+    /**
+     * Number of failed messages of a service held in memory for a redelivery at most.
+     */
+    public static final String ALIAS_MAX_PENDING_REDELIVERIES = "maxPendingRedeliveries";
+    /**
+     * Time in milliseconds the deduplication keys of a service are remembered for, which enables dropping its
+     * duplicate messages.
+     */
+    public static final String ALIAS_DEDUPLICATION_WINDOW = "deduplicationWindowMs";
+    /**
+     * Message property the messages of a service are deduplicated by, {@link #DEFAULT_DEDUPLICATION_KEY} if not set.
+     */
+    public static final String ALIAS_DEDUPLICATION_KEY = "deduplicationKey";
+    /**
+     * Maximum number of deduplication keys remembered at a time.
+     */
+    public static final String ALIAS_DEDUPLICATION_CAPACITY = "deduplicationCapacity";
+    /**
+     * Whether a Bloom filter is checked before the remembered deduplication keys.
+     */
+    public static final String ALIAS_DEDUPLICATION_BLOOM_FILTER = "deduplicationBloomFilter";
+    /**
+     * Default deduplication key, i.e. the id of the message.
+     */
+    public static final String DEFAULT_DEDUPLICATION_KEY = "JMSMessageID";
+    /**
+     * Time in milliseconds a stopping service waits for its in-flight messages before its consumers are closed.
+     */
+    public static final String ALIAS_DRAIN_TIMEOUT = "drainTimeoutMs";
+    /**
+     * Upper bound in milliseconds of the delay between the reconnection attempts of a service which lost its broker.
+     * Setting it opts the service into the jittered backoff of the connector owned receive loops.
+     */
+    public static final String ALIAS_MAX_RECONNECT_INTERVAL = "maxReconnectIntervalMs";
+    /**
+     * Whether the consumers of a service share a single connection with the consumers of the other services which
+     * connect to the same broker with the same configuration.
+     */
+    public static final String ALIAS_SHARE_CONNECTION = "shareConnection";
+    /**
+     * How the consumers of a service take their messages, {@link #CONSUMER_MODE_PUSH} if not set.
+     */
+    public static final String ALIAS_CONSUMER_MODE = "consumerMode";
+    /**
+     * Maximum number of messages a consumer of the poll mode takes per wake-up.
+     */
+    public static final String ALIAS_POLL_BATCH_SIZE = "pollBatchSize";
+    /**
+     * Time in milliseconds a consumer of the poll mode waits for a message before it wakes up.
+     */
+    public static final String ALIAS_POLL_TIMEOUT = "pollTimeoutMs";
+    /**
+     * Messages are pushed to the message listeners of the transport.
+     */
+    public static final String CONSUMER_MODE_PUSH = "push";
+    /**
+     * Messages are pulled by receive loops owned by the connector.
+     */
+    public static final String CONSUMER_MODE_POLL = "poll";
+    /**
+     * Maximum number of resource invocations of a scheduled service in flight.
+     */
+    public static final String ALIAS_MAX_CONCURRENT_INVOCATIONS = "maxConcurrentInvocations";
+    /**
+     * Share of the invocation slots of the process a scheduled service gets while other services have a backlog.
+     */
+    public static final String ALIAS_SCHEDULING_WEIGHT = "schedulingWeight";
+    /**
+     * Resources are invoked from the consumer threads of the transport.
+     */
+    public static final String DISPATCH_MODE_TRANSPORT = "transport";
+    /**
+     * Resources are executed blocking on virtual threads, or on a fallback thread pool when virtual threads are not
+     * available.
+     */
+    public static final String DISPATCH_MODE_VIRTUAL_THREAD = "virtualThread";
 
     /**
      * Alias for MB initial context factory name.
@@ -108,6 +301,11 @@ public class Constants {
 
     public static final String CONNECTOR_NAME = "JmsClient";
 
+    /**
+     * Native data key of the resolved {@link JMSClientConfig} in a ClientProperties struct.
+     */
+    public static final String JMS_CLIENT_CONFIG = "JMS_CLIENT_CONFIG";
+
     /*
      * Session acknowledgement mode of the particular message.
      */
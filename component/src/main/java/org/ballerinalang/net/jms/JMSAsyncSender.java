@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.connector.api.BallerinaConnectorException;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.jms.Message;
+
+/**
+ * {@code JMSAsyncSender} performs the sends of the {@code sendAsync} action on a dedicated I/O thread pool and
+ * completes the action future once the provider has accepted the message.
+ * <p>
+ * The number of sends in flight is capped per shared client connector and {@code maxPendingSends}, so endpoints
+ * which share a connector but set different caps each get their own. Once the cap is reached the calling worker is
+ * blocked until an earlier send completes, so a fast producer is throttled instead of queueing messages without a
+ * bound.
+ *
+ * @since 0.95
+ */
+public class JMSAsyncSender {
+    private static final Logger log = LoggerFactory.getLogger(JMSAsyncSender.class);
+
+    /**
+     * System property to override the number of I/O threads used for asynchronous sends.
+     */
+    public static final String THREAD_COUNT_PROPERTY = "ballerina.jms.client.asyncSendThreads";
+
+    private static final JMSAsyncSender instance = new JMSAsyncSender();
+
+    private final ExecutorService ioExecutor;
+
+    private final Map<String, Semaphore> pendingSendPermits = new ConcurrentHashMap<>();
+
+    private JMSAsyncSender() {
+        int threadCount = Integer.getInteger(THREAD_COUNT_PROPERTY, Runtime.getRuntime().availableProcessors() * 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ioExecutor = Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "jms-async-sender-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static JMSAsyncSender getInstance() {
+        return instance;
+    }
+
+    /**
+     * Send the message asynchronously. The caller is blocked only while the connector has no free send permit.
+     *
+     * @param clientConfig resolved client configuration
+     * @param jmsMessage   message to be sent, which should not be modified until the future completes
+     * @param destination  destination name
+     * @param future       future to be completed with the outcome of the send
+     * @throws InterruptedException if the caller is interrupted while waiting for a send permit
+     */
+    public void send(JMSClientConfig clientConfig, Message jmsMessage, String destination, ConnectorFuture future)
+            throws InterruptedException {
+        int maxPendingSends = Math.max(clientConfig.getMaxPendingSends(), 1);
+        Semaphore permits = pendingSendPermits.computeIfAbsent(clientConfig.getRegistryKey() + "#" + maxPendingSends,
+                key -> new Semaphore(maxPendingSends));
+        permits.acquire();
+        try {
+            ioExecutor.execute(() -> {
+                try {
+                    doSend(clientConfig, jmsMessage, destination);
+                    future.notifySuccess();
+                } catch (JMSConnectorException e) {
+                    log.error("Error while sending the message to " + destination + ". " + e.getMessage(), e);
+                    future.notifyFailure(new BallerinaConnectorException("Failed to send message. "
+                            + e.getMessage(), e));
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void doSend(JMSClientConfig clientConfig, Message jmsMessage, String destination)
+            throws JMSConnectorException {
+        JMSClientConnectorRegistry registry = JMSClientConnectorRegistry.getInstance();
+        JMSClientConnector jmsClientConnector = registry.acquire(clientConfig.getRegistryKey(),
+                clientConfig.getProperties());
+        try {
+            JMSUtils.sendMessage(jmsClientConnector, clientConfig, jmsMessage, destination);
+        } finally {
+            registry.release(clientConfig.getRegistryKey());
+        }
+    }
+}
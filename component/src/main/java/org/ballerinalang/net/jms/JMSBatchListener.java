@@ -0,0 +1,247 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.connector.api.BallerinaConnectorException;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.ballerinalang.connector.api.ConnectorFutureListener;
+import org.ballerinalang.connector.api.Executor;
+import org.ballerinalang.connector.api.Resource;
+import org.ballerinalang.model.values.BValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.callback.JMSCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.jms.Message;
+
+/**
+ * JMS Connector listener for services whose resource accepts a {@code JMSMessage[]}.
+ * <p>
+ * Messages are collected until the batch size is reached or the batch timeout of the first message elapses, and are
+ * then dispatched with a single resource invocation. The callbacks of all the messages of a batch are completed
+ * together with the outcome of that invocation, so the batch is acknowledged, committed or rolled back as a unit.
+ * <p>
+ * In the client acknowledgement and transacted modes the transport holds every consumer until its message is
+ * completed, hence a batch of those modes never holds more messages than the number of concurrent consumers, times
+ * the number of messages a consumer of the poll mode hands over at once.
+ * <p>
+ * Draining the listener dispatches the open batch right away, without waiting for its timeout.
+ *
+ * @since 0.95
+ */
+public class JMSBatchListener implements JMSServiceListener {
+    private static final Logger log = LoggerFactory.getLogger(JMSBatchListener.class);
+
+    private static final ScheduledExecutorService batchTimer = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "jms-batch-timer");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final Resource resource;
+    private final int batchSize;
+    private final long batchTimeout;
+
+    private final JMSDrainTracker drainTracker = new JMSDrainTracker();
+    private final JMSReconnectionManager reconnectionManager;
+
+    private Batch currentBatch;
+
+    public JMSBatchListener(Resource resource, JMSServiceConfig serviceConfig,
+            JMSReconnectionManager reconnectionManager) {
+        this.resource = resource;
+        this.reconnectionManager = reconnectionManager;
+        this.batchTimeout = serviceConfig.getBatchTimeout();
+        if (serviceConfig.isAcknowledgedBySession()) {
+            this.batchSize = Math.min(serviceConfig.getBatchSize(),
+                    serviceConfig.getConcurrentConsumers() * serviceConfig.getPollBatchSize());
+        } else {
+            this.batchSize = serviceConfig.getBatchSize();
+        }
+        this.currentBatch = new Batch(batchSize);
+    }
+
+    @Override
+    public void onMessage(Message jmsMessage, JMSCallback jmsCallback) {
+        if (jmsCallback == null) {
+            // The transport acknowledges the message in the auto acknowledgement modes once this call returns,
+            // hence it is dispatched even while the service drains
+            drainTracker.enterUnconditionally();
+        } else if (!drainTracker.enter()) {
+            // The service is stopping, the broker redelivers the message once it is rejected
+            jmsCallback.done(false);
+            return;
+        }
+        Batch fullBatch = null;
+        synchronized (this) {
+            currentBatch.add(jmsMessage, jmsCallback);
+            if (currentBatch.size() >= batchSize) {
+                fullBatch = takeCurrentBatch();
+            } else if (currentBatch.size() == 1) {
+                Batch lingeringBatch = currentBatch;
+                batchTimer.schedule(() -> dispatchIfCurrent(lingeringBatch), batchTimeout, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        reconnectionManager.onConnectionError(throwable);
+    }
+
+    @Override
+    public int drain(long timeout) {
+        Batch openBatch = null;
+        synchronized (this) {
+            if (currentBatch.size() > 0) {
+                openBatch = takeCurrentBatch();
+            }
+        }
+        if (openBatch != null) {
+            dispatch(openBatch);
+        }
+        return drainTracker.drain(timeout);
+    }
+
+    @Override
+    public void close() {
+
+    }
+
+    private void dispatchIfCurrent(Batch lingeringBatch) {
+        synchronized (this) {
+            if (currentBatch != lingeringBatch) {
+                return;
+            }
+            takeCurrentBatch();
+        }
+        dispatch(lingeringBatch);
+    }
+
+    private Batch takeCurrentBatch() {
+        Batch batch = currentBatch;
+        currentBatch = new Batch(batchSize);
+        return batch;
+    }
+
+    private void dispatch(Batch batch) {
+        if (log.isDebugEnabled()) {
+            log.debug("Dispatching a batch of " + batch.size() + " JMS Messages to " + resource.getName());
+        }
+        BatchCompletionListener completionListener = new BatchCompletionListener(batch.size(),
+                batch.callbacks.isEmpty() ? null : new JMSConnectorFutureListener(batch.callbacks));
+        ConnectorFuture future;
+        try {
+            if (batch.callbacks.isEmpty()) {
+                future = Executor.submit(resource, null,
+                        JMSDispatcher.getBatchSignatureParameters(resource, batch.messages));
+            } else {
+                future = Executor.submit(resource,
+                        JMSDispatcher.getDispatchProperties(batch.callbacks.get(0).getAcknowledgementMode()),
+                        JMSDispatcher.getBatchSignatureParameters(resource, batch.messages));
+            }
+        } catch (RuntimeException e) {
+            // Batches are also dispatched from the batch timer, where a rethrown error would reach no one while the
+            // consumers wait for the callbacks
+            log.error("Error while dispatching a batch of JMS Messages to " + resource.getName() + ". "
+                    + e.getMessage(), e);
+            completionListener.notifyFailure(new BallerinaConnectorException(e.getMessage(), e));
+            return;
+        }
+        future.setConnectorFutureListener(completionListener);
+    }
+
+    /**
+     * Future listener which accounts for the messages of a batch once its invocation is over, before the callbacks
+     * of the messages are informed.
+     */
+    private class BatchCompletionListener implements ConnectorFutureListener {
+        private final int messageCount;
+        private final ConnectorFutureListener delegate;
+        private final AtomicBoolean completed = new AtomicBoolean();
+
+        BatchCompletionListener(int messageCount, ConnectorFutureListener delegate) {
+            this.messageCount = messageCount;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void notifySuccess() {
+            complete();
+            if (delegate != null) {
+                delegate.notifySuccess();
+            }
+        }
+
+        @Override
+        public void notifyReply(BValue... response) {
+            // not used in jms
+        }
+
+        @Override
+        public void notifyFailure(BallerinaConnectorException ex) {
+            complete();
+            if (delegate != null) {
+                delegate.notifyFailure(ex);
+            }
+        }
+
+        void complete() {
+            if (completed.compareAndSet(false, true)) {
+                for (int i = 0; i < messageCount; i++) {
+                    drainTracker.exit();
+                }
+            }
+        }
+    }
+
+    /**
+     * Messages of a batch along with their callbacks. Callbacks are absent in the auto acknowledgement mode.
+     */
+    private static class Batch {
+        private final List<Message> messages;
+        private final List<JMSCallback> callbacks;
+
+        Batch(int batchSize) {
+            messages = new ArrayList<>(batchSize);
+            callbacks = new ArrayList<>(batchSize);
+        }
+
+        void add(Message message, JMSCallback callback) {
+            messages.add(message);
+            if (callback != null) {
+                callbacks.add(callback);
+            }
+        }
+
+        int size() {
+            return messages.size();
+        }
+    }
+}
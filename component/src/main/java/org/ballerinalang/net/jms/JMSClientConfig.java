@@ -0,0 +1,196 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.model.values.BStringArray;
+import org.ballerinalang.model.values.BStruct;
+import org.wso2.carbon.transport.jms.utils.JMSConstants;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code JMSClientConfig} is the resolved, immutable form of a {@code ClientProperties} struct.
+ * <p>
+ * The struct is converted to the transport level properties only once and the result is kept as native data of
+ * the struct, so the send path neither allocates property maps nor re-maps the parameter names.
+ *
+ * @since 0.95
+ */
+public final class JMSClientConfig {
+
+    private final Map<String, String> properties;
+    private final String registryKey;
+    private final boolean transacted;
+    private final boolean clientCaching;
+    private final int maxPendingSends;
+    private final int batchSize;
+    private final long lingerTime;
+    private final Map<String, String> batchProperties;
+    private final String batchRegistryKey;
+    private final List<String> warmUpDestinations;
+    private final boolean topicPublishing;
+
+    private JMSClientConfig(BStruct connectorConfig, Map<String, String> properties) {
+        this.properties = Collections.unmodifiableMap(properties);
+        this.registryKey = JMSClientConnectorRegistry.createKey(properties);
+        String acknowledgementMode = properties.get(JMSConstants.PARAM_ACK_MODE);
+        this.transacted = JMSConstants.SESSION_TRANSACTED_MODE.equals(acknowledgementMode)
+                || JMSConstants.XA_TRANSACTED_MODE.equals(acknowledgementMode);
+        this.clientCaching = Boolean.parseBoolean(properties.get(JMSConstants.PARAM_JMS_CACHING));
+        this.maxPendingSends = (int) connectorConfig.getIntField(2);
+        this.batchSize = (int) connectorConfig.getIntField(3);
+        this.lingerTime = connectorConfig.getIntField(4);
+        this.warmUpDestinations = getWarmUpDestinations(connectorConfig);
+        this.topicPublishing = JMSConstants.DESTINATION_TYPE_TOPIC.equalsIgnoreCase(
+                properties.get(JMSConstants.PARAM_CONNECTION_FACTORY_TYPE))
+                && JMSConstants.JMS_SPEC_VERSION_1_0.equals(properties.get(JMSConstants.PARAM_JMS_SPEC_VER));
+        if (isBatchingEnabled()) {
+            // Batches are always committed as a local transaction, hence they use a session transacted connector
+            Map<String, String> transactedProperties = new HashMap<>(properties);
+            transactedProperties.put(JMSConstants.PARAM_ACK_MODE, JMSConstants.SESSION_TRANSACTED_MODE);
+            this.batchProperties = Collections.unmodifiableMap(transactedProperties);
+            this.batchRegistryKey = JMSClientConnectorRegistry.createKey(transactedProperties);
+        } else {
+            this.batchProperties = null;
+            this.batchRegistryKey = null;
+        }
+    }
+
+    private static List<String> getWarmUpDestinations(BStruct connectorConfig) {
+        BStringArray destinations = (BStringArray) connectorConfig.getRefField(1);
+        if (destinations == null) {
+            return Collections.emptyList();
+        }
+        List<String> destinationNames = new ArrayList<>((int) destinations.size());
+        for (int i = 0; i < destinations.size(); i++) {
+            destinationNames.add(destinations.get(i));
+        }
+        return Collections.unmodifiableList(destinationNames);
+    }
+
+    /**
+     * Get the resolved configuration of the given {@code ClientProperties} struct, resolving it on first use.
+     * Changes done to the struct after its first use are not reflected.
+     *
+     * @param connectorConfig {@code ClientProperties} struct
+     * @return resolved client configuration
+     */
+    public static JMSClientConfig fromStruct(BStruct connectorConfig) {
+        JMSClientConfig config = (JMSClientConfig) connectorConfig.getNativeData(Constants.JMS_CLIENT_CONFIG);
+        if (config == null) {
+            synchronized (connectorConfig) {
+                config = (JMSClientConfig) connectorConfig.getNativeData(Constants.JMS_CLIENT_CONFIG);
+                if (config == null) {
+                    config = new JMSClientConfig(connectorConfig, JMSUtils.preProcessJmsConfig(connectorConfig));
+                    connectorConfig.addNativeData(Constants.JMS_CLIENT_CONFIG, config);
+                }
+            }
+        }
+        return config;
+    }
+
+    /**
+     * @return read only transport level client connector properties
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return key of the shared connector in the {@link JMSClientConnectorRegistry}
+     */
+    public String getRegistryKey() {
+        return registryKey;
+    }
+
+    /**
+     * @return true if the acknowledgement mode is either session transacted or XA transacted
+     */
+    public boolean isTransacted() {
+        return transacted;
+    }
+
+    /**
+     * @return true if the transport pools the connections and sessions of the connector
+     */
+    public boolean isClientCaching() {
+        return clientCaching;
+    }
+
+    /**
+     * @return maximum number of asynchronous sends of the shared connector which may be in flight at a time
+     */
+    public int getMaxPendingSends() {
+        return maxPendingSends;
+    }
+
+    /**
+     * @return true if concurrent sends to the same destination are coalesced into transacted batches
+     */
+    public boolean isBatchingEnabled() {
+        return batchSize > 1 && clientCaching;
+    }
+
+    /**
+     * @return maximum number of messages committed together by the auto-batching producer
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return time in milliseconds a partially filled batch waits for more messages before it is committed
+     */
+    public long getLingerTime() {
+        return lingerTime;
+    }
+
+    /**
+     * @return read only properties of the session transacted connector used by the auto-batching producer
+     */
+    public Map<String, String> getBatchProperties() {
+        return batchProperties;
+    }
+
+    /**
+     * @return key of the session transacted connector used by the auto-batching producer
+     */
+    public String getBatchRegistryKey() {
+        return batchRegistryKey;
+    }
+
+    /**
+     * @return names of the destinations to be resolved while warming up the connector
+     */
+    public List<String> getWarmUpDestinations() {
+        return warmUpDestinations;
+    }
+
+    /**
+     * @return true if the sessions of the connector publish through a {@link javax.jms.TopicPublisher}, as the
+     * sessions of a JMS 1.0 topic connection factory do
+     */
+    public boolean isTopicPublishing() {
+        return topicPublishing;
+    }
+}
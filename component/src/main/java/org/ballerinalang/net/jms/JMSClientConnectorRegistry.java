@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.impl.JMSConnectorFactoryImpl;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code JMSClientConnectorRegistry} keeps a single transport level {@link JMSClientConnector} per distinct client
+ * configuration, so that every JmsClient endpoint with the same properties shares the same connector and pool.
+ * <p>
+ * Entries are reference counted while in use and are evicted once they stay idle for longer than
+ * {@link #IDLE_TIMEOUT_PROPERTY} milliseconds. The pooled connections are closed when the runtime shuts down.
+ *
+ * @since 0.95
+ */
+public class JMSClientConnectorRegistry {
+    private static final Logger log = LoggerFactory.getLogger(JMSClientConnectorRegistry.class);
+
+    /**
+     * System property to override the idle time (in milliseconds) after which an unused entry is evicted.
+     */
+    public static final String IDLE_TIMEOUT_PROPERTY = "ballerina.jms.client.idleTimeout";
+
+    private static final long DEFAULT_IDLE_TIMEOUT = 300000;
+
+    private static final JMSClientConnectorRegistry instance = new JMSClientConnectorRegistry();
+
+    private final Map<String, RegistryEntry> entries = new ConcurrentHashMap<>();
+
+    private final long idleTimeout;
+
+    private JMSClientConnectorRegistry() {
+        idleTimeout = Long.getLong(IDLE_TIMEOUT_PROPERTY, DEFAULT_IDLE_TIMEOUT);
+        ScheduledExecutorService evictionService = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jms-client-connector-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionInterval = Math.max(idleTimeout / 2, 1000);
+        evictionService.scheduleWithFixedDelay(this::evictIdleEntries, evictionInterval, evictionInterval,
+                TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::closeAll, "jms-client-connector-shutdown"));
+    }
+
+    public static JMSClientConnectorRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Create the registry key for the given client connector properties. Two property maps with the same content
+     * produce the same key, regardless of their iteration order.
+     *
+     * @param properties transport level client connector properties
+     * @return normalized registry key
+     */
+    public static String createKey(Map<String, String> properties) {
+        StringBuilder keyBuilder = new StringBuilder();
+        for (Map.Entry<String, String> property : new TreeMap<>(properties).entrySet()) {
+            keyBuilder.append(property.getKey()).append('=').append(property.getValue()).append(';');
+        }
+        return keyBuilder.toString();
+    }
+
+    /**
+     * Acquire the shared client connector for the given configuration, creating it if this is the first usage.
+     * Every successful call should be paired with a {@link #release(String)} call.
+     *
+     * @param key        registry key created with {@link #createKey(Map)}
+     * @param properties transport level client connector properties
+     * @return shared client connector
+     * @throws JMSConnectorException if the client connector cannot be created
+     */
+    public JMSClientConnector acquire(String key, Map<String, String> properties) throws JMSConnectorException {
+        while (true) {
+            RegistryEntry entry = entries.get(key);
+            if (entry == null) {
+                entry = createEntry(key, properties);
+            }
+            if (entry.retain()) {
+                return entry.connector;
+            }
+            // Lost the race against the evictor, remove the stale entry and retry
+            entries.remove(key, entry);
+        }
+    }
+
+    /**
+     * Release a reference obtained through {@link #acquire(String, Map)}.
+     *
+     * @param key registry key of the connector
+     */
+    public void release(String key) {
+        RegistryEntry entry = entries.get(key);
+        if (entry != null) {
+            entry.release();
+        }
+    }
+
+    private synchronized RegistryEntry createEntry(String key, Map<String, String> properties)
+            throws JMSConnectorException {
+        RegistryEntry entry = entries.get(key);
+        if (entry == null) {
+            JMSClientConnector connector = new JMSConnectorFactoryImpl()
+                    .createClientConnector(new HashMap<>(properties));
+            entry = new RegistryEntry(connector);
+            entries.put(key, entry);
+            if (log.isDebugEnabled()) {
+                log.debug("Created a shared jms client connector. Active client connectors: " + entries.size());
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Drop the entries which are not in use and have been idle for longer than the idle timeout. The underlying
+     * connection factory is cached by the transport, hence it is not closed here.
+     */
+    void evictIdleEntries() {
+        long now = System.currentTimeMillis();
+        Iterator<RegistryEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            RegistryEntry entry = iterator.next();
+            if (now - entry.lastAccessTime > idleTimeout && entry.markEvicted()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void closeAll() {
+        for (RegistryEntry entry : entries.values()) {
+            try {
+                entry.connector.closeConnectionFactory();
+            } catch (JMSConnectorException e) {
+                log.error("Error while closing the jms client connector: " + e.getMessage(), e);
+            }
+        }
+        entries.clear();
+    }
+
+    /**
+     * Reference counted holder of a shared client connector. A negative count marks an evicted entry.
+     */
+    private static class RegistryEntry {
+        private final JMSClientConnector connector;
+        private final AtomicInteger referenceCount = new AtomicInteger();
+        private volatile long lastAccessTime = System.currentTimeMillis();
+
+        RegistryEntry(JMSClientConnector connector) {
+            this.connector = connector;
+        }
+
+        boolean retain() {
+            int count;
+            do {
+                count = referenceCount.get();
+                if (count < 0) {
+                    return false;
+                }
+            } while (!referenceCount.compareAndSet(count, count + 1));
+            lastAccessTime = System.currentTimeMillis();
+            return true;
+        }
+
+        void release() {
+            lastAccessTime = System.currentTimeMillis();
+            referenceCount.decrementAndGet();
+        }
+
+        boolean markEvicted() {
+            return referenceCount.compareAndSet(0, -1);
+        }
+    }
+}
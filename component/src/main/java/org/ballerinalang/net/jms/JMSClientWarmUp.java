@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.sender.wrappers.SessionWrapper;
+import org.wso2.carbon.transport.jms.utils.JMSConstants;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * {@code JMSClientWarmUp} eagerly creates the connections and sessions of a shared client connector in the
+ * background, so that the first sends through a JmsClient endpoint do not pay for the JNDI lookups and the connection
+ * and session creation.
+ * <p>
+ * The warm-up is done once per shared connector. The connector is reported as ready once its warm-up is over, even if
+ * the warm-up failed, as the sends then create the resources on demand just like without a warm-up.
+ *
+ * @since 0.95
+ */
+public class JMSClientWarmUp {
+    private static final Logger log = LoggerFactory.getLogger(JMSClientWarmUp.class);
+
+    private static final JMSClientWarmUp instance = new JMSClientWarmUp();
+
+    private final Map<String, CompletableFuture<Void>> warmUps = new ConcurrentHashMap<>();
+
+    private final ExecutorService warmUpExecutor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "jms-client-warm-up");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private JMSClientWarmUp() {
+    }
+
+    public static JMSClientWarmUp getInstance() {
+        return instance;
+    }
+
+    /**
+     * Start the warm-up of the shared connector of the given configuration, unless it is already started.
+     *
+     * @param clientConfig resolved client configuration
+     */
+    public void start(JMSClientConfig clientConfig) {
+        if (!clientConfig.isClientCaching()) {
+            // Nothing is pooled, hence there is nothing to warm up
+            return;
+        }
+        warmUps.computeIfAbsent(clientConfig.getRegistryKey(),
+                key -> CompletableFuture.runAsync(() -> warmUp(clientConfig), warmUpExecutor));
+    }
+
+    /**
+     * @param clientConfig resolved client configuration
+     * @return true if the warm-up of the shared connector is over or if no warm-up was started
+     */
+    public boolean isReady(JMSClientConfig clientConfig) {
+        CompletableFuture<Void> warmUp = warmUps.get(clientConfig.getRegistryKey());
+        return warmUp == null || warmUp.isDone();
+    }
+
+    private void warmUp(JMSClientConfig clientConfig) {
+        long startTime = System.currentTimeMillis();
+        JMSClientConnectorRegistry registry = JMSClientConnectorRegistry.getInstance();
+        try {
+            JMSClientConnector jmsClientConnector = registry.acquire(clientConfig.getRegistryKey(),
+                    clientConfig.getProperties());
+            try {
+                resolveDestinations(jmsClientConnector, clientConfig);
+                createSessions(jmsClientConnector, clientConfig);
+            } finally {
+                registry.release(clientConfig.getRegistryKey());
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("Warmed up the jms client connector in " + (System.currentTimeMillis() - startTime)
+                        + "ms");
+            }
+        } catch (JMSConnectorException e) {
+            log.error("Error while warming up the jms client connector, the resources will be created on demand. "
+                    + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Resolve the warm-up destinations through a single session, so that the sends keep the rest of the pool meanwhile.
+     */
+    private void resolveDestinations(JMSClientConnector jmsClientConnector, JMSClientConfig clientConfig)
+            throws JMSConnectorException {
+        if (clientConfig.getWarmUpDestinations().isEmpty()) {
+            return;
+        }
+        SessionWrapper session = jmsClientConnector.acquireSession();
+        try {
+            JMSDestinationCache destinationCache = JMSDestinationCache.getInstance();
+            for (String destinationName : clientConfig.getWarmUpDestinations()) {
+                destinationCache.getDestination(clientConfig.getRegistryKey(), clientConfig.getProperties(),
+                        session.getSession(), destinationName);
+            }
+        } finally {
+            jmsClientConnector.releaseSession(session);
+        }
+    }
+
+    /**
+     * Hold every session of the pool at once so that the pool creates all of them. Nothing else is done while they
+     * are held, as the sends wait for a session meanwhile.
+     */
+    private void createSessions(JMSClientConnector jmsClientConnector, JMSClientConfig clientConfig)
+            throws JMSConnectorException {
+        Map<String, String> properties = clientConfig.getProperties();
+        int sessionCount = Integer.parseInt(properties.get(JMSConstants.PARAM_MAX_CONNECTIONS))
+                * Integer.parseInt(properties.get(JMSConstants.PARAM_MAX_SESSIONS_ON_CONNECTION));
+        List<SessionWrapper> sessions = new ArrayList<>(sessionCount);
+        try {
+            for (int i = 0; i < sessionCount; i++) {
+                sessions.add(jmsClientConnector.acquireSession());
+            }
+        } finally {
+            for (SessionWrapper session : sessions) {
+                jmsClientConnector.releaseSession(session);
+            }
+        }
+    }
+}
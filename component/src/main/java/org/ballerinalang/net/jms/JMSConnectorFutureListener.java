@@ -24,6 +24,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.transport.jms.callback.JMSCallback;
 
+import java.util.Collections;
+import java.util.List;
+
 /**
  * {@code JMSConnectorFutureListener} is the responsible for acting on notifications received from Ballerina side.
  *
@@ -31,7 +34,7 @@ import org.wso2.carbon.transport.jms.callback.JMSCallback;
  */
 public class JMSConnectorFutureListener implements ConnectorFutureListener {
     private static final Logger log = LoggerFactory.getLogger(JMSConnectorFutureListener.class);
-    private JMSCallback jmsCallback;
+    private List<JMSCallback> jmsCallbacks;
     /** future will get notified by the jms native methods and from the Ballerina engine when the Resource invocation
      * is over or when an error occurred. This parameter will maintain the state of the JMSConnectorFutureListener
      * and Callback will notified only if its not already notified
@@ -39,7 +42,16 @@ public class JMSConnectorFutureListener implements ConnectorFutureListener {
     private boolean isInformedCallback;
 
     public JMSConnectorFutureListener(JMSCallback jmsCallback) {
-        this.jmsCallback = jmsCallback;
+        this(Collections.singletonList(jmsCallback));
+    }
+
+    /**
+     * Create a listener which completes the callbacks of all the messages of a batch together.
+     *
+     * @param jmsCallbacks callbacks of the messages dispatched with a single resource invocation
+     */
+    public JMSConnectorFutureListener(List<JMSCallback> jmsCallbacks) {
+        this.jmsCallbacks = jmsCallbacks;
         this.isInformedCallback = Boolean.FALSE;
     }
 
@@ -61,7 +73,9 @@ public class JMSConnectorFutureListener implements ConnectorFutureListener {
     private void informCallback(boolean status) {
         if (!isInformedCallback) {
             isInformedCallback = Boolean.TRUE;
-            jmsCallback.done(status);
+            for (JMSCallback jmsCallback : jmsCallbacks) {
+                jmsCallback.done(status);
+            }
         }
     }
 }
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code JMSConsumerScaler} adapts the number of consumers of a {@link JMSPollingServerConnector} to the load of its
+ * service, between the {@code minConcurrentConsumers} and {@code maxConcurrentConsumers} of the service.
+ * <p>
+ * The consumers report every receive and the execution time of every message. On each interval the scaler looks at
+ * the share of the receives which found no message and at the average execution time, and follows an additive
+ * increase, multiplicative decrease scheme:
+ * <ul>
+ * <li>if the consumers were rarely idle and the execution time stays close to its baseline, one consumer is added,</li>
+ * <li>if the consumers were mostly idle, or the execution time grew well beyond its baseline, which means the
+ * downstream of the service is saturated, the consumers are halved.</li>
+ * </ul>
+ *
+ * @since 0.95
+ */
+public class JMSConsumerScaler {
+    private static final Logger log = LoggerFactory.getLogger(JMSConsumerScaler.class);
+
+    /**
+     * System property to override the interval in milliseconds between two evaluations of the consumer count.
+     */
+    public static final String SCALE_INTERVAL_PROPERTY = "ballerina.jms.server.consumerScaleInterval";
+
+    private static final long DEFAULT_SCALE_INTERVAL = 5000;
+    private static final double SCALE_UP_IDLE_RATIO = 0.1;
+    private static final double SCALE_DOWN_IDLE_RATIO = 0.5;
+    private static final double SATURATION_LATENCY_FACTOR = 2.0;
+    private static final double BASELINE_WEIGHT = 0.2;
+
+    private static final ScheduledExecutorService scaleTimer = Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "jms-consumer-scaler");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private final JMSPollingServerConnector serverConnector;
+    private final String serviceId;
+    private final int minConsumers;
+    private final int maxConsumers;
+
+    private final LongAdder receives = new LongAdder();
+    private final LongAdder emptyReceives = new LongAdder();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder executionNanos = new LongAdder();
+
+    private double baselineLatency;
+    private ScheduledFuture<?> scaleTask;
+
+    public JMSConsumerScaler(JMSPollingServerConnector serverConnector, JMSServiceConfig serviceConfig) {
+        this.serverConnector = serverConnector;
+        this.serviceId = serviceConfig.getServiceId();
+        this.minConsumers = serviceConfig.getMinConcurrentConsumers();
+        this.maxConsumers = serviceConfig.getMaxConcurrentConsumers();
+    }
+
+    public synchronized void start() {
+        long interval = Long.getLong(SCALE_INTERVAL_PROPERTY, DEFAULT_SCALE_INTERVAL);
+        scaleTask = scaleTimer.scheduleWithFixedDelay(this::evaluate, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scaleTask != null) {
+            scaleTask.cancel(false);
+            scaleTask = null;
+        }
+    }
+
+    /**
+     * @param received true if the receive returned a message, false if it timed out
+     */
+    void recordReceive(boolean received) {
+        receives.increment();
+        if (!received) {
+            emptyReceives.increment();
+        }
+    }
+
+    /**
+     * @param nanos time taken until the message was completed by the service
+     */
+    void recordExecution(long nanos) {
+        executions.increment();
+        executionNanos.add(nanos);
+    }
+
+    private void evaluate() {
+        try {
+            long receiveCount = receives.sumThenReset();
+            long emptyReceiveCount = emptyReceives.sumThenReset();
+            long executionCount = executions.sumThenReset();
+            long executionTime = executionNanos.sumThenReset();
+            double idleRatio = receiveCount == 0 ? 1 : (double) emptyReceiveCount / receiveCount;
+            double latency = executionCount == 0 ? 0 : (double) executionTime / executionCount;
+
+            int consumerCount = serverConnector.getConsumerCount();
+            int targetCount = getTargetCount(consumerCount, idleRatio, latency);
+            if (targetCount != consumerCount) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Scaling the consumers of " + serviceId + " from " + consumerCount + " to "
+                            + targetCount + ", idle ratio " + idleRatio + ", average execution time "
+                            + (long) latency + "ns");
+                }
+                serverConnector.resize(targetCount);
+            }
+        } catch (RuntimeException e) {
+            log.error("Error while scaling the consumers of " + serviceId + ". " + e.getMessage(), e);
+        }
+    }
+
+    private int getTargetCount(int consumerCount, double idleRatio, double latency) {
+        boolean saturated = latency > 0 && baselineLatency > 0
+                && latency > baselineLatency * SATURATION_LATENCY_FACTOR;
+        if (latency > 0 && !saturated) {
+            baselineLatency = baselineLatency == 0 ? latency
+                    : baselineLatency * (1 - BASELINE_WEIGHT) + latency * BASELINE_WEIGHT;
+        }
+        if (saturated) {
+            // Learn the baseline again, as the downstream may have slowed down for good
+            baselineLatency = latency;
+        }
+        if (saturated || idleRatio > SCALE_DOWN_IDLE_RATIO) {
+            return Math.max(minConsumers, consumerCount / 2);
+        }
+        if (idleRatio < SCALE_UP_IDLE_RATIO) {
+            return Math.min(maxConsumers, consumerCount + 1);
+        }
+        return consumerCount;
+    }
+}
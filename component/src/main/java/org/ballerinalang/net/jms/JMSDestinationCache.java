@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.utils.JMSConstants;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Session;
+import javax.naming.InitialContext;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingException;
+
+/**
+ * {@code JMSDestinationCache} caches the {@link Destination} objects resolved for destination names, so that the
+ * JNDI lookup (or the session level creation) of a destination is done only once per connection factory.
+ * <p>
+ * Destinations are resolved the same way the transport does, first through JNDI and then through the session. The
+ * JNDI context of a connection factory is opened on its first lookup and closed once none of its destinations are
+ * cached any more. The cache holds at most {@link #MAX_SIZE_PROPERTY} destinations, evicting the least recently used
+ * one, and the destinations of a connection factory are dropped once a send through that connection factory fails.
+ *
+ * @since 0.95
+ */
+public class JMSDestinationCache {
+    private static final Logger log = LoggerFactory.getLogger(JMSDestinationCache.class);
+
+    /**
+     * System property to override the maximum number of cached destinations.
+     */
+    public static final String MAX_SIZE_PROPERTY = "ballerina.jms.destinationCacheSize";
+
+    private static final int DEFAULT_MAX_SIZE = 1024;
+
+    private static final JMSDestinationCache instance = new JMSDestinationCache();
+
+    private final LinkedHashMap<DestinationKey, Destination> destinations = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, DestinationResolver> resolvers = new HashMap<>();
+
+    private final int maxSize;
+
+    private JMSDestinationCache() {
+        maxSize = Math.max(Integer.getInteger(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE), 1);
+    }
+
+    public static JMSDestinationCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Get the destination for the given name, resolving it with the given session if it is not cached.
+     *
+     * @param factoryKey      key of the connection factory, created with
+     *                        {@link JMSClientConnectorRegistry#createKey(Map)}
+     * @param properties      transport level properties of the connection factory
+     * @param session         session to be used if the destination has to be created
+     * @param destinationName name of the destination
+     * @return resolved destination
+     * @throws JMSConnectorException if the destination cannot be resolved
+     */
+    public Destination getDestination(String factoryKey, Map<String, String> properties, Session session,
+            String destinationName) throws JMSConnectorException {
+        DestinationResolver resolver;
+        DestinationKey key;
+        synchronized (this) {
+            resolver = resolvers.get(factoryKey);
+            if (resolver == null) {
+                resolver = new DestinationResolver(factoryKey, properties);
+                resolvers.put(factoryKey, resolver);
+            }
+            key = new DestinationKey(factoryKey, destinationName, resolver.destinationType);
+            Destination destination = destinations.get(key);
+            if (destination != null) {
+                return destination;
+            }
+        }
+        // The lookup is done outside the lock of the cache, so that a slow naming service holds back only misses
+        Destination destination = resolver.resolve(session, destinationName);
+        synchronized (this) {
+            if (resolvers.get(factoryKey) == resolver && destinations.put(key, destination) == null) {
+                resolver.destinationCount++;
+                if (destinations.size() > maxSize) {
+                    evictEldest();
+                }
+            }
+        }
+        return destination;
+    }
+
+    /**
+     * Drop the cached destinations of the given connection factory, and close its JNDI context.
+     *
+     * @param factoryKey key of the connection factory
+     */
+    public void invalidate(String factoryKey) {
+        DestinationResolver resolver;
+        synchronized (this) {
+            destinations.keySet().removeIf(key -> key.factoryKey.equals(factoryKey));
+            resolver = resolvers.remove(factoryKey);
+        }
+        if (resolver != null) {
+            resolver.close();
+        }
+    }
+
+    /**
+     * Evict the least recently used destination. Must be called while holding the lock of the cache.
+     */
+    private void evictEldest() {
+        Iterator<DestinationKey> iterator = destinations.keySet().iterator();
+        DestinationKey eldest = iterator.next();
+        iterator.remove();
+        DestinationResolver resolver = resolvers.get(eldest.factoryKey);
+        if (resolver != null && --resolver.destinationCount == 0) {
+            resolvers.remove(eldest.factoryKey);
+            resolver.close();
+        }
+    }
+
+    /**
+     * Resolves the destinations of a connection factory, through its JNDI context or its sessions.
+     */
+    private static class DestinationResolver {
+        private final String factoryKey;
+        private final Properties contextProperties = new Properties();
+        private final JMSConstants.JMSDestinationType destinationType;
+        private InitialContext context;
+        private boolean closed;
+        /**
+         * Number of cached destinations resolved by this resolver, guarded by the lock of the cache.
+         */
+        private int destinationCount;
+
+        DestinationResolver(String factoryKey, Map<String, String> properties) {
+            this.factoryKey = factoryKey;
+            contextProperties.putAll(properties);
+            this.destinationType = JMSConstants.DESTINATION_TYPE_TOPIC.equalsIgnoreCase(
+                    properties.get(JMSConstants.PARAM_CONNECTION_FACTORY_TYPE))
+                    ? JMSConstants.JMSDestinationType.TOPIC : JMSConstants.JMSDestinationType.QUEUE;
+        }
+
+        synchronized Destination resolve(Session session, String destinationName) throws JMSConnectorException {
+            String destinationTypeName = destinationType == JMSConstants.JMSDestinationType.TOPIC
+                    ? JMSConstants.DESTINATION_TYPE_TOPIC : JMSConstants.DESTINATION_TYPE_QUEUE;
+            InitialContext lookupContext = null;
+            try {
+                // A resolver closed by an eviction meanwhile does not keep a context open
+                lookupContext = closed ? new InitialContext(contextProperties) : getContext();
+                return org.wso2.carbon.transport.jms.utils.JMSUtils.lookupDestination(lookupContext,
+                        destinationName, destinationTypeName);
+            } catch (NameNotFoundException e) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Could not find destination " + destinationName + " through JNDI, creating it on the "
+                            + "session. " + e.getMessage());
+                }
+            } catch (NamingException e) {
+                throw new JMSConnectorException("Error while looking up the destination " + destinationName + ". "
+                        + e.getMessage(), e);
+            } finally {
+                if (closed && lookupContext != null) {
+                    closeContext(lookupContext);
+                }
+            }
+            try {
+                return destinationType == JMSConstants.JMSDestinationType.TOPIC
+                        ? session.createTopic(destinationName) : session.createQueue(destinationName);
+            } catch (JMSException e) {
+                throw new JMSConnectorException("Error while creating the destination " + destinationName + ". "
+                        + e.getMessage(), e);
+            }
+        }
+
+        synchronized void close() {
+            closed = true;
+            if (context != null) {
+                closeContext(context);
+                context = null;
+            }
+        }
+
+        private InitialContext getContext() throws NamingException {
+            if (context == null) {
+                context = new InitialContext(contextProperties);
+            }
+            return context;
+        }
+
+        private void closeContext(InitialContext lookupContext) {
+            try {
+                lookupContext.close();
+            } catch (NamingException e) {
+                log.debug("Error while closing the JNDI context of " + factoryKey, e);
+            }
+        }
+    }
+
+    /**
+     * Cache key made of the connection factory, the destination name and the destination type.
+     */
+    private static class DestinationKey {
+        private final String factoryKey;
+        private final String destinationName;
+        private final JMSConstants.JMSDestinationType destinationType;
+
+        DestinationKey(String factoryKey, String destinationName, JMSConstants.JMSDestinationType destinationType) {
+            this.factoryKey = factoryKey;
+            this.destinationName = destinationName;
+            this.destinationType = destinationType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DestinationKey)) {
+                return false;
+            }
+            DestinationKey that = (DestinationKey) o;
+            return destinationName.equals(that.destinationName) && destinationType == that.destinationType
+                    && factoryKey.equals(that.factoryKey);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = factoryKey.hashCode();
+            result = 31 * result + destinationName.hashCode();
+            result = 31 * result + (destinationType != null ? destinationType.hashCode() : 0);
+            return result;
+        }
+    }
+}
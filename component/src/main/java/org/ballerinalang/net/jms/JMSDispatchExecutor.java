@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code JMSDispatchExecutor} runs the dispatches which are handed off the consumer threads of the transport: those
+ * of the ordered lanes and of the scheduler, which submit their invocations to the engine, and those of the services
+ * which use the {@code virtualThread} dispatch mode.
+ * <p>
+ * In the {@code virtualThread} mode the resource is executed on the dispatch thread itself through the blocking path
+ * of the engine, so that a resource blocked on I/O holds its own dispatch thread instead of a worker thread of the
+ * engine. On a JDK with virtual threads every dispatch gets its own virtual thread. On older JDKs the dispatches fall
+ * back to a pool of platform daemon threads which grows on demand, where a blocked resource still holds a platform
+ * thread. Either way the number of invocations in flight is capped per service by its listener.
+ *
+ * @since 0.95
+ */
+public class JMSDispatchExecutor {
+    private static final Logger log = LoggerFactory.getLogger(JMSDispatchExecutor.class);
+
+    private static final JMSDispatchExecutor instance = new JMSDispatchExecutor();
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+
+    private JMSDispatchExecutor() {
+        ExecutorService virtualThreadExecutor = createVirtualThreadExecutor();
+        if (virtualThreadExecutor != null) {
+            executor = virtualThreadExecutor;
+            virtualThreads = true;
+        } else {
+            AtomicInteger threadIndex = new AtomicInteger();
+            executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "jms-dispatcher-" + threadIndex.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            virtualThreads = false;
+        }
+    }
+
+    public static JMSDispatchExecutor getInstance() {
+        return instance;
+    }
+
+    /**
+     * Run the given task, i.e. a resource invocation, off the calling consumer thread.
+     *
+     * @param task task to be run
+     */
+    public void execute(Runnable task) {
+        executor.execute(task);
+    }
+
+    /**
+     * @return true if the tasks run on virtual threads, false if they run on the fallback thread pool
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * The connector is built for Java 8, hence the virtual thread executor is looked up reflectively.
+     */
+    private static ExecutorService createVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            log.debug("Virtual threads are not available, falling back to a thread pool for the jms dispatches");
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Error while creating the virtual thread executor, falling back to a thread pool for the jms "
+                    + "dispatches. " + e.getMessage(), e);
+        }
+        return null;
+    }
+}
@@ -21,13 +21,18 @@ package org.ballerinalang.net.jms;
 import org.ballerinalang.connector.api.ConnectorUtils;
 import org.ballerinalang.connector.api.ParamDetail;
 import org.ballerinalang.connector.api.Resource;
+import org.ballerinalang.model.types.BArrayType;
+import org.ballerinalang.model.values.BRefValueArray;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.model.values.BValue;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import javax.jms.Message;
+import javax.jms.Session;
 
 /**
  * Dispatcher that handles the resources of a JMS Service.
@@ -35,6 +40,39 @@ import javax.jms.Message;
 public class JMSDispatcher {
     private static final Logger log = LoggerFactory.getLogger(JMSDispatcher.class);
 
+    /**
+     * Invocation properties of the standard acknowledgement modes, indexed by the mode.
+     */
+    private static final Map<String, Object>[] DISPATCH_PROPERTIES = createDispatchProperties();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<String, Object>[] createDispatchProperties() {
+        int[] acknowledgementModes = { Session.SESSION_TRANSACTED, Session.AUTO_ACKNOWLEDGE,
+                Session.CLIENT_ACKNOWLEDGE, Session.DUPS_OK_ACKNOWLEDGE };
+        Map<String, Object>[] dispatchProperties = new Map[acknowledgementModes.length];
+        for (int acknowledgementMode : acknowledgementModes) {
+            dispatchProperties[acknowledgementMode] = Collections.singletonMap(
+                    Constants.JMS_SESSION_ACKNOWLEDGEMENT_MODE, acknowledgementMode);
+        }
+        return dispatchProperties;
+    }
+
+    /**
+     * Get the properties a resource is invoked with, which carry the acknowledgement mode of the session of the
+     * message to the natives. The engine copies the properties into the context of the invocation, hence the
+     * immutable properties of the standard modes are shared by every invocation.
+     *
+     * @param acknowledgementMode acknowledgement mode of the session of the message
+     * @return invocation properties
+     */
+    public static Map<String, Object> getDispatchProperties(int acknowledgementMode) {
+        if (acknowledgementMode >= 0 && acknowledgementMode < DISPATCH_PROPERTIES.length) {
+            return DISPATCH_PROPERTIES[acknowledgementMode];
+        }
+        // Provider specific modes are rare enough not to be cached
+        return Collections.singletonMap(Constants.JMS_SESSION_ACKNOWLEDGEMENT_MODE, acknowledgementMode);
+    }
+
     public static BValue[] getSignatureParameters(Resource resource, Message jmsCarbonMessage) {
         BStruct message = ConnectorUtils.createStruct(resource, Constants.PROTOCOL_PACKAGE_JMS, Constants.JMS_MESSAGE);
         message.addNativeData(Constants.JMS_API_MESSAGE, jmsCarbonMessage);
@@ -47,4 +85,32 @@ public class JMSDispatcher {
         return bValues;
     }
 
+    /**
+     * Check whether the resource accepts a batch of messages, i.e. a {@code JMSMessage[]}.
+     *
+     * @param resource resource of the JMS service
+     * @return true if the first parameter of the resource is an array
+     */
+    public static boolean isBatchResource(Resource resource) {
+        List<ParamDetail> paramDetails = resource.getParamDetails();
+        return !paramDetails.isEmpty() && paramDetails.get(0).getVarType() instanceof BArrayType;
+    }
+
+    public static BValue[] getBatchSignatureParameters(Resource resource, List<Message> jmsMessages) {
+        List<ParamDetail> paramDetails = resource.getParamDetails();
+        BRefValueArray messages = new BRefValueArray(paramDetails.get(0).getVarType());
+        for (int i = 0; i < jmsMessages.size(); i++) {
+            BStruct message = ConnectorUtils.createStruct(resource, Constants.PROTOCOL_PACKAGE_JMS,
+                    Constants.JMS_MESSAGE);
+            message.addNativeData(Constants.JMS_API_MESSAGE, jmsMessages.get(i));
+            message.addNativeData(Constants.INBOUND_REQUEST, Boolean.TRUE);
+            messages.add(i, message);
+        }
+
+        BValue[] bValues = new BValue[paramDetails.size()];
+        bValues[0] = messages;
+
+        return bValues;
+    }
+
 }
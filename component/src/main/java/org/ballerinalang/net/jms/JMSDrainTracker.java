@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+/**
+ * {@code JMSDrainTracker} counts the messages of a service whose resource invocations are not over yet, so that the
+ * service can be drained before its server connector is stopped.
+ * <p>
+ * While the service drains, the messages which arrive are held back until the in-flight messages complete or the
+ * drain times out. They are then rejected, so that they are redelivered by the broker after the service is stopped.
+ * The messages of the auto acknowledgement modes cannot be rejected, as the transport acknowledges them once they
+ * are handed over, hence those are entered unconditionally and dispatched while the service drains.
+ *
+ * @since 0.95
+ */
+public class JMSDrainTracker {
+
+    private int inFlight;
+    private boolean draining;
+    private boolean closed;
+
+    /**
+     * Account for a message about to be dispatched, waiting while the service drains.
+     *
+     * @return true if the message is to be dispatched, false if the service no longer accepts messages
+     */
+    public synchronized boolean enter() {
+        while (draining && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        if (closed) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Account for a message which is dispatched regardless of the drain, e.g. a message the connector redelivers.
+     */
+    public synchronized void enterUnconditionally() {
+        inFlight++;
+    }
+
+    /**
+     * Account for a message whose resource invocation is over.
+     */
+    public synchronized void exit() {
+        inFlight--;
+        if (inFlight == 0 && draining) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Stop accepting messages and wait until the in-flight messages complete.
+     *
+     * @param timeout maximum time to wait in milliseconds
+     * @return number of messages still in flight, 0 if the service is drained
+     */
+    public synchronized int drain(long timeout) {
+        draining = true;
+        long deadline = System.currentTimeMillis() + timeout;
+        long remaining = timeout;
+        try {
+            while (inFlight > 0 && remaining > 0) {
+                wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closed = true;
+        notifyAll();
+        return inFlight;
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * {@code JMSDuplicateFilter} drops the messages of a service whose deduplication key, the {@code JMSMessageID} or a
+ * message property, was already seen within the deduplication window.
+ * <p>
+ * The keys are remembered as 64 bit fingerprints in an open addressing table of primitive longs, so remembering a key
+ * allocates nothing. The fingerprints are also kept in a ring in arrival order, which expires them once they are
+ * older than the window, or once the filter holds as many keys as its capacity. An optional counting Bloom filter
+ * answers for the keys seen for the first time without probing the table.
+ * <p>
+ * The key of a message whose processing failed is forgotten, so that its redeliveries are processed again.
+ *
+ * @since 0.95
+ */
+public class JMSDuplicateFilter {
+    private static final Logger log = LoggerFactory.getLogger(JMSDuplicateFilter.class);
+
+    private static final long EMPTY = 0;
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final int BLOOM_HASHES = 3;
+
+    private final String deduplicationKey;
+    private final long window;
+    private final int capacity;
+
+    private final long[] tableFingerprints;
+    private final long[] tableSequences;
+    private final int tableMask;
+
+    private final long[] ringFingerprints;
+    private final long[] ringTimes;
+    private long ringHead;
+    private long ringTail;
+
+    private final byte[] bloomCounters;
+    private final int bloomMask;
+
+    /**
+     * @param deduplicationKey message property the messages are deduplicated by, or {@code JMSMessageID}
+     * @param window           time in milliseconds a key is remembered for
+     * @param capacity         maximum number of keys remembered at a time
+     * @param bloomFilter      true to check a counting Bloom filter before the table
+     */
+    public JMSDuplicateFilter(String deduplicationKey, long window, int capacity, boolean bloomFilter) {
+        this.deduplicationKey = deduplicationKey;
+        this.window = window;
+        this.capacity = capacity;
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 1) * 2 - 1) << 1;
+        this.tableFingerprints = new long[tableSize];
+        this.tableSequences = new long[tableSize];
+        this.tableMask = tableSize - 1;
+        this.ringFingerprints = new long[capacity];
+        this.ringTimes = new long[capacity];
+        if (bloomFilter) {
+            // Eight counters per key keep the false positive rate of three hashes around 3%
+            this.bloomCounters = new byte[tableSize * 4];
+            this.bloomMask = bloomCounters.length - 1;
+        } else {
+            this.bloomCounters = null;
+            this.bloomMask = 0;
+        }
+    }
+
+    /**
+     * Check whether the given message is a duplicate, remembering its key if it is not.
+     *
+     * @param jmsMessage inbound message
+     * @return true if the key of the message was seen within the window
+     */
+    public boolean isDuplicate(Message jmsMessage) {
+        String key = getKey(jmsMessage);
+        return key != null && isDuplicate(key, System.currentTimeMillis());
+    }
+
+    /**
+     * Forget the key of the given message, so that its redeliveries are not dropped.
+     *
+     * @param jmsMessage message whose processing failed
+     */
+    public void forget(Message jmsMessage) {
+        String key = getKey(jmsMessage);
+        if (key != null) {
+            forget(key);
+        }
+    }
+
+    synchronized boolean isDuplicate(String key, long now) {
+        expire(now);
+        long fingerprint = fingerprint(key);
+        if ((bloomCounters == null || mightContain(fingerprint)) && indexOf(fingerprint) >= 0) {
+            return true;
+        }
+        if (ringTail - ringHead == capacity) {
+            evictHead();
+        }
+        int ringIndex = (int) (ringTail % capacity);
+        ringFingerprints[ringIndex] = fingerprint;
+        ringTimes[ringIndex] = now;
+        insert(fingerprint, ringTail++);
+        return false;
+    }
+
+    synchronized void forget(String key) {
+        long fingerprint = fingerprint(key);
+        int index = indexOf(fingerprint);
+        if (index >= 0) {
+            remove(index);
+        }
+    }
+
+    private String getKey(Message jmsMessage) {
+        try {
+            if (Constants.DEFAULT_DEDUPLICATION_KEY.equals(deduplicationKey)) {
+                return jmsMessage.getJMSMessageID();
+            }
+            Object value = jmsMessage.getObjectProperty(deduplicationKey);
+            return value != null ? value.toString() : null;
+        } catch (JMSException e) {
+            log.error("Error while reading the " + deduplicationKey + " of the message, it is not deduplicated. "
+                    + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private void expire(long now) {
+        while (ringHead < ringTail && ringTimes[(int) (ringHead % capacity)] <= now - window) {
+            evictHead();
+        }
+    }
+
+    private void evictHead() {
+        long fingerprint = ringFingerprints[(int) (ringHead % capacity)];
+        int index = indexOf(fingerprint);
+        // A forgotten key may have been seen again since, in which case its newer entry is kept
+        if (index >= 0 && tableSequences[index] == ringHead) {
+            remove(index);
+        }
+        ringHead++;
+    }
+
+    private static long fingerprint(String key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < key.length(); i++) {
+            hash = (hash ^ key.charAt(i)) * FNV_PRIME;
+        }
+        return hash != EMPTY ? hash : 1;
+    }
+
+    private int indexOf(long fingerprint) {
+        for (int index = (int) fingerprint & tableMask; tableFingerprints[index] != EMPTY;
+                index = (index + 1) & tableMask) {
+            if (tableFingerprints[index] == fingerprint) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(long fingerprint, long sequence) {
+        int index = (int) fingerprint & tableMask;
+        while (tableFingerprints[index] != EMPTY) {
+            index = (index + 1) & tableMask;
+        }
+        tableFingerprints[index] = fingerprint;
+        tableSequences[index] = sequence;
+        updateBloomFilter(fingerprint, 1);
+    }
+
+    /**
+     * Remove the entry at the given index, shifting back the entries of its probe sequence so that no tombstones are
+     * needed.
+     */
+    private void remove(int index) {
+        updateBloomFilter(tableFingerprints[index], -1);
+        int hole = index;
+        int next = (hole + 1) & tableMask;
+        while (tableFingerprints[next] != EMPTY) {
+            int home = (int) tableFingerprints[next] & tableMask;
+            if (((next - home) & tableMask) >= ((next - hole) & tableMask)) {
+                tableFingerprints[hole] = tableFingerprints[next];
+                tableSequences[hole] = tableSequences[next];
+                hole = next;
+            }
+            next = (next + 1) & tableMask;
+        }
+        tableFingerprints[hole] = EMPTY;
+    }
+
+    private boolean mightContain(long fingerprint) {
+        int hash1 = (int) fingerprint;
+        int hash2 = (int) (fingerprint >>> 32);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            if (bloomCounters[(hash1 + i * hash2) & bloomMask] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void updateBloomFilter(long fingerprint, int delta) {
+        if (bloomCounters == null) {
+            return;
+        }
+        int hash1 = (int) fingerprint;
+        int hash2 = (int) (fingerprint >>> 32);
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int index = (hash1 + i * hash2) & bloomMask;
+            // Saturated counters stay saturated, as their exact count is lost
+            if (bloomCounters[index] != Byte.MAX_VALUE) {
+                bloomCounters[index] += delta;
+            }
+        }
+    }
+}
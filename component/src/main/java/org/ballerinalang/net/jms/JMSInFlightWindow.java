@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+/**
+ * {@code JMSInFlightWindow} bounds the number and the size of the messages of a service whose resource invocations
+ * are not over yet.
+ * <p>
+ * The window is acquired from the consumer thread before a message is dispatched. Once the count or the byte limit
+ * is reached the window is paused and every consumer of the service is held in {@link #acquire(long)}, which stops
+ * the receipt of messages from the broker. The window resumes only after the completions drain it below its low-water
+ * mark, so that a slow downstream does not make the consumers flap between paused and running.
+ *
+ * @since 0.95
+ */
+public class JMSInFlightWindow {
+    private static final Logger log = LoggerFactory.getLogger(JMSInFlightWindow.class);
+
+    /**
+     * Size accounted for the messages whose body size is not known up front, e.g. map and object messages.
+     */
+    private static final long DEFAULT_MESSAGE_SIZE = 1024;
+
+    private final String serviceId;
+    private final int maxCount;
+    private final long maxBytes;
+    private final int resumeCount;
+    private final long resumeBytes;
+
+    private int inFlightCount;
+    private long inFlightBytes;
+    private boolean paused;
+
+    /**
+     * @param serviceId     name of the service, used for logging
+     * @param maxCount      maximum number of messages in flight, or 0 for no count limit
+     * @param maxBytes      maximum total size of the messages in flight, or 0 for no byte limit
+     * @param resumePercent percentage of the limits the window has to drain below before it resumes
+     */
+    public JMSInFlightWindow(String serviceId, int maxCount, long maxBytes, int resumePercent) {
+        this.serviceId = serviceId;
+        this.maxCount = maxCount > 0 ? maxCount : Integer.MAX_VALUE;
+        this.maxBytes = maxBytes > 0 ? maxBytes : Long.MAX_VALUE;
+        this.resumeCount = maxCount > 0 ? (int) ((long) maxCount * resumePercent / 100) : Integer.MAX_VALUE;
+        this.resumeBytes = maxBytes > 0 ? maxBytes * resumePercent / 100 : Long.MAX_VALUE;
+    }
+
+    /**
+     * Take a place in the window for a message, waiting while the window is paused. A message larger than the byte
+     * limit is let in once the window is empty, so that it cannot block the service forever.
+     *
+     * @param messageSize size accounted for the message
+     * @throws InterruptedException if the consumer is interrupted while the window is paused
+     */
+    public synchronized void acquire(long messageSize) throws InterruptedException {
+        while (paused || isFull(messageSize)) {
+            if (!paused) {
+                paused = true;
+                if (log.isDebugEnabled()) {
+                    log.debug("Pausing the consumers of " + serviceId + " with " + inFlightCount + " messages and "
+                            + inFlightBytes + " bytes in flight");
+                }
+            }
+            wait();
+        }
+        inFlightCount++;
+        inFlightBytes += messageSize;
+    }
+
+    /**
+     * Give back the place of a message whose resource invocation is over.
+     *
+     * @param messageSize size accounted for the message when it was acquired
+     */
+    public synchronized void release(long messageSize) {
+        inFlightCount--;
+        inFlightBytes -= messageSize;
+        if (paused && inFlightCount <= resumeCount && inFlightBytes <= resumeBytes) {
+            paused = false;
+            if (log.isDebugEnabled()) {
+                log.debug("Resuming the consumers of " + serviceId + " with " + inFlightCount + " messages and "
+                        + inFlightBytes + " bytes in flight");
+            }
+            notifyAll();
+        }
+    }
+
+    private boolean isFull(long messageSize) {
+        if (inFlightCount == 0) {
+            return false;
+        }
+        return inFlightCount >= maxCount || inFlightBytes + messageSize > maxBytes;
+    }
+
+    /**
+     * Estimate the size of the body of a message, which is what dominates its footprint while it is in flight.
+     *
+     * @param message JMS message
+     * @return size of the body in bytes
+     */
+    public static long getMessageSize(Message message) {
+        try {
+            if (message instanceof TextMessage) {
+                String text = ((TextMessage) message).getText();
+                return text != null ? (long) text.length() * 2 : 0;
+            }
+            if (message instanceof BytesMessage) {
+                return ((BytesMessage) message).getBodyLength();
+            }
+        } catch (JMSException e) {
+            log.debug("Error while reading the size of the message, using the default size. " + e.getMessage());
+        }
+        return DEFAULT_MESSAGE_SIZE;
+    }
+}
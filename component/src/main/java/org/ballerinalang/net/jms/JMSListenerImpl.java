@@ -18,47 +18,381 @@
 
 package org.ballerinalang.net.jms;
 
+import org.ballerinalang.connector.api.BallerinaConnectorException;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.connector.api.ConnectorFutureListener;
 import org.ballerinalang.connector.api.Executor;
 import org.ballerinalang.connector.api.Resource;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.net.jms.selector.JMSSelector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wso2.carbon.transport.jms.callback.JMSCallback;
-import org.wso2.carbon.transport.jms.contract.JMSListener;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import javax.jms.JMSException;
 import javax.jms.Message;
+import javax.jms.Session;
 
 /**
  * JMS Connector listener for Ballerina.
+ * <p>
+ * By default the resource is invoked from the consumer thread of the transport. In the {@code virtualThread}
+ * dispatch mode the invocation is handed over to the {@link JMSDispatchExecutor} instead, and with ordered lanes it
+ * is queued on the lane of its ordering key in a {@link JMSOrderedDispatcher}. When the service bounds its in-flight
+ * messages, the consumer thread is held in a {@link JMSInFlightWindow} until earlier invocations complete. A service
+ * with several resources picks the resource of each message through its {@link JMSResourceRouter}. Failed messages
+ * of a service with a redelivery policy are handed to its {@link JMSRedeliveryHandler}, which dispatches them again
+ * through this listener. Duplicate messages are dropped by the {@link JMSDuplicateFilter} of the service. The
+ * messages whose invocations are not over yet are counted by a {@link JMSDrainTracker}, so that the service can be
+ * drained before it is stopped. The invocations of a scheduled service wait for a slot of the
+ * {@link JMSServiceScheduler}, within the permit budget of the service.
  */
-public class JMSListenerImpl implements JMSListener {
+public class JMSListenerImpl implements JMSServiceListener {
+    private static final Logger log = LoggerFactory.getLogger(JMSListenerImpl.class);
+
+    private static final AtomicIntegerFieldUpdater<InboundDispatch> COMPLETED =
+            AtomicIntegerFieldUpdater.newUpdater(InboundDispatch.class, "completed");
+    private static final AtomicIntegerFieldUpdater<InboundDispatch> INFORMED =
+            AtomicIntegerFieldUpdater.newUpdater(InboundDispatch.class, "informed");
 
     private Resource resource;
+    private JMSResourceRouter resourceRouter;
+    private JMSInFlightWindow inFlightWindow;
+    private JMSOrderedDispatcher orderedDispatcher;
+    private JMSSelector localSelector;
+    private boolean virtualThreadDispatch;
+    private JMSRedeliveryHandler redeliveryHandler;
+    private JMSDuplicateFilter duplicateFilter;
+    private final JMSDrainTracker drainTracker = new JMSDrainTracker();
+    private JMSReconnectionManager reconnectionManager;
+    private JMSServiceScheduler.ServiceQueue serviceQueue;
 
     public JMSListenerImpl (Resource resource) {
         this.resource = resource;
     }
 
+    public JMSListenerImpl(JMSResourceRouter resourceRouter, JMSServiceConfig serviceConfig,
+            JMSReconnectionManager reconnectionManager) {
+        this(resourceRouter.getSingleResource());
+        this.reconnectionManager = reconnectionManager;
+        if (resource == null) {
+            this.resourceRouter = resourceRouter;
+        }
+        this.virtualThreadDispatch = serviceConfig.isVirtualThreadDispatch();
+        this.localSelector = serviceConfig.getLocalSelector();
+        if (serviceConfig.isInFlightBounded()) {
+            this.inFlightWindow = new JMSInFlightWindow(serviceConfig.getServiceId(), serviceConfig.getMaxInFlight(),
+                    serviceConfig.getMaxInFlightBytes(), serviceConfig.getInFlightResumePercent());
+        }
+        if (serviceConfig.isOrderedDispatch()) {
+            this.orderedDispatcher = new JMSOrderedDispatcher(serviceConfig.getOrderingKey(),
+                    serviceConfig.getOrderedLanes());
+        }
+        if (serviceConfig.getRedeliveryPolicy() != null) {
+            this.redeliveryHandler = new JMSRedeliveryHandler(serviceConfig);
+        }
+        if (serviceConfig.isDeduplicated()) {
+            this.duplicateFilter = new JMSDuplicateFilter(serviceConfig.getDeduplicationKey(),
+                    serviceConfig.getDeduplicationWindow(), serviceConfig.getDeduplicationCapacity(),
+                    serviceConfig.isDeduplicationBloomFilter());
+        }
+        if (serviceConfig.isScheduled()) {
+            this.serviceQueue = JMSServiceScheduler.getInstance().createQueue(serviceConfig.getServiceId(),
+                    serviceConfig.getSchedulingWeight(), serviceConfig.getMaxConcurrentInvocations());
+        }
+    }
+
     @Override
     public void onMessage(Message jmsMessage, JMSCallback jmsCallback) {
-        if (jmsCallback != null) {
-            Map<String, Object> properties = new HashMap<>();
-            properties.put(Constants.JMS_SESSION_ACKNOWLEDGEMENT_MODE, jmsCallback.getAcknowledgementMode());
+        if (localSelector != null && !isSelected(jmsMessage)) {
+            // Filtered out messages are consumed without reaching the resource
+            if (jmsCallback != null) {
+                jmsCallback.done(true);
+            }
+            return;
+        }
+        boolean redelivery = jmsCallback instanceof RedeliveryCallback;
+        if (redelivery || jmsCallback == null) {
+            // The message is no longer held by the broker, as the connector took it over for a redelivery or the
+            // transport acknowledges it in the auto acknowledgement modes once this call returns, hence it is
+            // dispatched even while the service drains
+            drainTracker.enterUnconditionally();
+        } else if (!drainTracker.enter()) {
+            // The service is stopping, the broker redelivers the message once it is rejected
+            jmsCallback.done(false);
+            return;
+        }
+        if (!redelivery && duplicateFilter != null && duplicateFilter.isDuplicate(jmsMessage)) {
+            // Duplicates are consumed without reaching the resource
+            drainTracker.exit();
+            if (jmsCallback != null) {
+                jmsCallback.done(true);
+            }
+            return;
+        }
+        InboundDispatch inboundDispatch = new InboundDispatch(jmsMessage, jmsCallback);
+        if (inFlightWindow != null) {
+            long messageSize = JMSInFlightWindow.getMessageSize(jmsMessage);
+            try {
+                inFlightWindow.acquire(messageSize);
+            } catch (InterruptedException e) {
+                // The transport is shutting down the consumer, hence the message is dispatched in place
+                Thread.currentThread().interrupt();
+                dispatch(inboundDispatch, true);
+                return;
+            }
+            inboundDispatch.messageSize = messageSize;
+        }
+        if (orderedDispatcher != null) {
+            orderedDispatcher.dispatch(jmsMessage, laneCompletionHook -> {
+                inboundDispatch.laneCompletionHook = laneCompletionHook;
+                if (serviceQueue != null) {
+                    schedule(inboundDispatch);
+                } else {
+                    dispatch(inboundDispatch, false);
+                }
+            });
+        } else if (serviceQueue != null) {
+            schedule(inboundDispatch);
+        } else if (virtualThreadDispatch) {
+            JMSDispatchExecutor.getInstance().execute(inboundDispatch);
+        } else {
+            dispatch(inboundDispatch, true);
+        }
+    }
 
-            ConnectorFuture future = Executor
-                    .submit(resource, properties, JMSDispatcher.getSignatureParameters(resource, jmsMessage));
+    private boolean isSelected(Message jmsMessage) {
+        try {
+            return localSelector.matches(jmsMessage);
+        } catch (JMSException e) {
+            log.error("Error while evaluating the " + Constants.ALIAS_LOCAL_SELECTOR + " " + localSelector
+                    + ", the message is dispatched. " + e.getMessage(), e);
+            return true;
+        }
+    }
 
-            ConnectorFutureListener futureListener = new JMSConnectorFutureListener(jmsCallback);
-            future.setConnectorFutureListener(futureListener);
-        } else {
-            Executor.submit(resource, null, JMSDispatcher.getSignatureParameters(resource, jmsMessage));
+    /**
+     * Queue the dispatch of the message on the scheduler, which runs it once the service gets a slot.
+     */
+    private void schedule(InboundDispatch inboundDispatch) {
+        try {
+            serviceQueue.submit(slotCompletionHook -> {
+                inboundDispatch.slotCompletionHook = slotCompletionHook;
+                dispatch(inboundDispatch, false);
+            });
+        } catch (InterruptedException e) {
+            // The transport is shutting down the consumer, hence the message is dispatched in place
+            Thread.currentThread().interrupt();
+            dispatch(inboundDispatch, false);
         }
     }
 
+    /**
+     * Invoke the resource with the message. The dispatch itself listens to the future of the invocation.
+     *
+     * @param inPlace true if the message is dispatched from the consumer thread of the transport which handed it
+     *                over, false if it is dispatched from an executor, a lane, a scheduler slot or a timer
+     */
+    private void dispatch(InboundDispatch inboundDispatch, boolean inPlace) {
+        dispatch(inboundDispatch, inPlace, false);
+    }
+
+    /**
+     * Invoke the resource with the message.
+     *
+     * @param inPlace  true if the message is dispatched from the consumer thread of the transport which handed it
+     *                 over
+     * @param blocking true if the resource is executed on the calling thread, which the virtual thread dispatch
+     *                 mode does on its dispatch threads, false if it is submitted to the worker pool of the engine
+     */
+    private void dispatch(InboundDispatch inboundDispatch, boolean inPlace, boolean blocking) {
+        Message jmsMessage = inboundDispatch.jmsMessage;
+        JMSCallback jmsCallback = inboundDispatch.jmsCallback;
+        Resource targetResource = resourceRouter != null ? resourceRouter.route(jmsMessage) : resource;
+        if (targetResource == null) {
+            // Fail the message, so that it is redelivered or dead lettered as per the broker configuration
+            log.error("No resource of " + resourceRouter.getServiceId() + " matches the received message");
+            inboundDispatch.notifyFailure(new BallerinaConnectorException("No matching resource"));
+            return;
+        }
+        ConnectorFuture future;
+        try {
+            Map<String, Object> properties = jmsCallback != null
+                    ? JMSDispatcher.getDispatchProperties(jmsCallback.getAcknowledgementMode()) : null;
+            future = blocking ? execute(targetResource, jmsMessage, properties)
+                    : submit(targetResource, jmsMessage, properties);
+        } catch (RuntimeException e) {
+            if (inPlace && jmsCallback == null && redeliveryHandler == null) {
+                // The provider redelivers a message of the auto acknowledgement modes whose listener fails
+                if (duplicateFilter != null) {
+                    duplicateFilter.forget(jmsMessage);
+                }
+                inboundDispatch.complete();
+                throw e;
+            }
+            // Anywhere else a rethrown error would reach no one while the consumer waits for the callback
+            log.error("Error while dispatching a message to " + targetResource.getName() + ". " + e.getMessage(), e);
+            inboundDispatch.notifyFailure(new BallerinaConnectorException(e.getMessage(), e));
+            return;
+        }
+        future.setConnectorFutureListener(inboundDispatch);
+    }
+
+    /**
+     * Submit the resource invocation to the Ballerina engine. Package-private so that the inbound path can be
+     * exercised without a running program.
+     */
+    ConnectorFuture submit(Resource targetResource, Message jmsMessage, Map<String, Object> properties) {
+        return Executor.submit(targetResource, properties,
+                JMSDispatcher.getSignatureParameters(targetResource, jmsMessage));
+    }
+
+    /**
+     * Execute the resource invocation on the calling thread, which is blocked until the invocation is over. The
+     * returned future already holds the outcome, which it hands to its listener once the listener is set.
+     */
+    ConnectorFuture execute(Resource targetResource, Message jmsMessage, Map<String, Object> properties) {
+        return Executor.execute(targetResource, properties,
+                JMSDispatcher.getSignatureParameters(targetResource, jmsMessage));
+    }
+
     @Override
     public void onError(Throwable throwable) {
+        if (reconnectionManager != null) {
+            reconnectionManager.onConnectionError(throwable);
+        } else {
+            log.error("Error in the JMS connection. " + throwable.getMessage(), throwable);
+        }
+    }
+
+    @Override
+    public int drain(long timeout) {
+        return drainTracker.drain(timeout);
+    }
+
+    @Override
+    public void close() {
+        if (redeliveryHandler != null) {
+            redeliveryHandler.stop();
+        }
+    }
+
+    /**
+     * State of a message from its receipt until its callback is informed. A single object carries the message
+     * through the executors and lanes and listens to the future of its invocation, so that in the default dispatch
+     * mode the connector allocates a single object per message besides the parameters of the resource.
+     * <p>
+     * The future is notified both by the acknowledgement natives and by the engine once the invocation is over,
+     * hence the dispatch is not reused, and it completes and informs the callback only once. The completion, which
+     * gives back the places of the message in the in-flight window, the drain tracker, its ordered lane and its
+     * scheduler slot, is run before the callback is informed.
+     */
+    private class InboundDispatch implements ConnectorFutureListener, Runnable {
+        private final Message jmsMessage;
+        private final JMSCallback jmsCallback;
+        private long messageSize = -1;
+        private Runnable laneCompletionHook;
+        private Runnable slotCompletionHook;
+        volatile int completed;
+        volatile int informed;
+
+        InboundDispatch(Message jmsMessage, JMSCallback jmsCallback) {
+            this.jmsMessage = jmsMessage;
+            this.jmsCallback = jmsCallback;
+        }
+
+        /**
+         * Dispatch the message on a thread of the {@link JMSDispatchExecutor}, in the virtual thread dispatch mode.
+         */
+        @Override
+        public void run() {
+            dispatch(this, false, true);
+        }
+
+        @Override
+        public void notifySuccess() {
+            complete();
+            if (jmsCallback != null && INFORMED.compareAndSet(this, 0, 1)) {
+                jmsCallback.done(true);
+            }
+        }
 
+        @Override
+        public void notifyReply(BValue... response) {
+            // not used in jms
+        }
+
+        @Override
+        public void notifyFailure(BallerinaConnectorException ex) {
+            complete();
+            if (duplicateFilter != null) {
+                // Forgetting the key keeps the redeliveries of the message from being dropped as duplicates
+                duplicateFilter.forget(jmsMessage);
+            }
+            if (redeliveryHandler != null) {
+                if (INFORMED.compareAndSet(this, 0, 1)) {
+                    handOverToRedelivery();
+                }
+            } else if (jmsCallback != null && INFORMED.compareAndSet(this, 0, 1)) {
+                jmsCallback.done(false);
+            }
+        }
+
+        private void handOverToRedelivery() {
+            int redeliveries = jmsCallback instanceof RedeliveryCallback
+                    ? ((RedeliveryCallback) jmsCallback).redeliveries : 0;
+            int acknowledgementMode = jmsCallback != null
+                    ? jmsCallback.getAcknowledgementMode() : Session.AUTO_ACKNOWLEDGE;
+            boolean heldByBroker = jmsCallback != null && !(jmsCallback instanceof RedeliveryCallback);
+            boolean takenOver = redeliveryHandler.handleFailure(jmsMessage, redeliveries, heldByBroker,
+                    () -> onMessage(jmsMessage, new RedeliveryCallback(acknowledgementMode, redeliveries + 1)));
+            if (jmsCallback != null) {
+                jmsCallback.done(takenOver);
+            }
+        }
+
+        void complete() {
+            if (!COMPLETED.compareAndSet(this, 0, 1)) {
+                return;
+            }
+            if (messageSize >= 0) {
+                inFlightWindow.release(messageSize);
+            }
+            drainTracker.exit();
+            if (laneCompletionHook != null) {
+                laneCompletionHook.run();
+            }
+            if (slotCompletionHook != null) {
+                slotCompletionHook.run();
+            }
+        }
+    }
+
+    /**
+     * Callback of a message redelivered by the connector. The message has already been acknowledged towards the
+     * broker, hence the callback only carries the acknowledgement mode of the session and the redelivery count.
+     */
+    private static class RedeliveryCallback extends JMSCallback {
+        private final int acknowledgementMode;
+        private final int redeliveries;
+
+        RedeliveryCallback(int acknowledgementMode, int redeliveries) {
+            super(null);
+            this.acknowledgementMode = acknowledgementMode;
+            this.redeliveries = redeliveries;
+        }
+
+        @Override
+        public void done(boolean success) {
+            // the broker is no longer involved in the delivery of the message
+        }
+
+        @Override
+        public int getAcknowledgementMode() {
+            return acknowledgementMode;
+        }
     }
 
 }
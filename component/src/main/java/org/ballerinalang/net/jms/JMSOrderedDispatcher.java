@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * {@code JMSOrderedDispatcher} spreads the messages of a service over a fixed set of serial lanes by the hash of an
+ * ordering key, {@code JMSXGroupID} unless the service names another message property.
+ * <p>
+ * A lane runs one dispatch at a time and starts the next one only when the resource invocation of the previous one
+ * is over, so the messages of a key are processed in the order the consumer handed them over, while the messages of
+ * different lanes are processed in parallel. Each message keeps its own completion callback, hence a slow lane does
+ * not hold back the acknowledgements of the others. Messages without an ordering key are not ordered and are
+ * dispatched right away.
+ * <p>
+ * The lanes queue the messages of a key while its previous message is processed, so the in-flight window of the
+ * service bounds them, by {@code maxInFlight} or {@code maxInFlightBytes}, or by 1024 messages if neither is set.
+ * Lanes are only available to a single push consumer in the AUTO_ACKNOWLEDGE and DUPS_OK_ACKNOWLEDGE modes. In the
+ * CLIENT_ACKNOWLEDGE and transacted modes, and in the receive loops of the {@link JMSPollingServerConnector}, a
+ * consumer waits for the completion of each message before it takes the next one, so the lanes get nothing to
+ * process in parallel, and several consumers would hand the messages of a key to the lanes out of order.
+ *
+ * @since 0.95
+ */
+public class JMSOrderedDispatcher {
+    private static final Logger log = LoggerFactory.getLogger(JMSOrderedDispatcher.class);
+
+    private final String orderingKey;
+    private final Lane[] lanes;
+
+    /**
+     * @param orderingKey name of the message property the messages are ordered by
+     * @param laneCount   number of lanes processed in parallel
+     */
+    public JMSOrderedDispatcher(String orderingKey, int laneCount) {
+        this.orderingKey = orderingKey;
+        this.lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane();
+        }
+    }
+
+    /**
+     * Run the given dispatch on the lane of the message. The dispatch receives the hook it has to run once its
+     * resource invocation is over, which starts the next dispatch of the lane.
+     *
+     * @param jmsMessage message to be dispatched
+     * @param dispatch   dispatch of the message
+     */
+    public void dispatch(Message jmsMessage, Consumer<Runnable> dispatch) {
+        String key = getKey(jmsMessage);
+        if (key == null) {
+            JMSDispatchExecutor.getInstance().execute(() -> dispatch.accept(() -> { }));
+            return;
+        }
+        lanes[(key.hashCode() & Integer.MAX_VALUE) % lanes.length].submit(dispatch);
+    }
+
+    private String getKey(Message jmsMessage) {
+        try {
+            return jmsMessage.getStringProperty(orderingKey);
+        } catch (JMSException e) {
+            log.warn("Error while reading the ordering key " + orderingKey + " of the message, it is dispatched "
+                    + "without ordering. " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Serial lane of dispatches. The dispatches run on the {@link JMSDispatchExecutor}, so that the completion of a
+     * dispatch never starts the next one on the stack of the completing thread.
+     */
+    private static class Lane {
+        private final Queue<Consumer<Runnable>> pendingDispatches = new ArrayDeque<>();
+        private boolean busy;
+
+        void submit(Consumer<Runnable> dispatch) {
+            synchronized (this) {
+                if (busy) {
+                    pendingDispatches.add(dispatch);
+                    return;
+                }
+                busy = true;
+            }
+            run(dispatch);
+        }
+
+        private void complete() {
+            Consumer<Runnable> next;
+            synchronized (this) {
+                next = pendingDispatches.poll();
+                if (next == null) {
+                    busy = false;
+                    return;
+                }
+            }
+            run(next);
+        }
+
+        private void run(Consumer<Runnable> dispatch) {
+            AtomicBoolean completed = new AtomicBoolean();
+            Runnable completionHook = () -> {
+                if (completed.compareAndSet(false, true)) {
+                    complete();
+                }
+            };
+            JMSDispatchExecutor.getInstance().execute(() -> {
+                try {
+                    dispatch.accept(completionHook);
+                } catch (RuntimeException e) {
+                    log.error("Error while dispatching an ordered message. " + e.getMessage(), e);
+                    completionHook.run();
+                }
+            });
+        }
+    }
+}
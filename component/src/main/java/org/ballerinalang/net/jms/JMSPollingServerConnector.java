@@ -0,0 +1,461 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.callback.JMSCallback;
+import org.wso2.carbon.transport.jms.contract.JMSListener;
+import org.wso2.carbon.transport.jms.contract.JMSServerConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.factory.JMSServerConnectionFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import javax.jms.Connection;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+/**
+ * {@code JMSPollingServerConnector} is a server connector which consumes the messages of a service with its own
+ * receive loops instead of the transport level message listeners.
+ * <p>
+ * Every consumer runs a loop on a dedicated thread which receives a message, hands it over to the
+ * {@link JMSListener} of the service and waits until the message is completed. Owning the loop allows the connector
+ * to defer the completion of the processed messages and to complete a whole group of them with a single call on
+ * the session, i.e. acknowledging up to {@code ackBatchSize} messages with one acknowledgement or committing up to
+ * {@code commitBatchSize} messages with one commit. An open group is completed when it is full, when its interval
+ * elapses and when the connector is stopped. Stopping the connector stops receiving right away, and waits up to the
+ * {@code drainTimeoutMs} of the service for the consumers to finish their current messages. A failed message
+ * recovers or rolls back the session, hence the processed messages of the open group are redelivered along with it.
+ * <p>
+ * Owning the consumers also allows the connector to add and remove consumers while the service is running, which
+ * the {@link JMSConsumerScaler} does for the services with a {@code maxConcurrentConsumers}.
+ * <p>
+ * Every wake-up of a receive loop drains up to {@code pollBatchSize} messages, the first one with a blocking receive
+ * and the rest without waiting. The drained messages are processed one after the other in the order they were
+ * received, or, for a resource which accepts a {@code JMSMessage[]}, handed to the listener together before their
+ * outcomes are awaited, so that they reach the resource as a single batch.
+ * <p>
+ * A consumer which loses its connection, whether its exception listener is informed or a receive fails, closes its
+ * connection and reconnects from its own loop, after the jittered backoff of the {@link JMSReconnectionManager}.
+ * <p>
+ * The consumers of a service which shares its connection create their sessions on the connection the
+ * {@link JMSServerConnectionRegistry} keeps for its broker configuration, instead of opening a connection each.
+ *
+ * @since 0.95
+ */
+public class JMSPollingServerConnector implements JMSServerConnector {
+    private static final Logger log = LoggerFactory.getLogger(JMSPollingServerConnector.class);
+
+    private static final long RECEIVE_TIMEOUT = 1000;
+
+    private final JMSServiceConfig serviceConfig;
+    private final JMSListener jmsListener;
+    private final List<Consumer> consumers = new ArrayList<>();
+    private final List<Consumer> retiredConsumers = new ArrayList<>();
+    private final JMSReconnectionManager reconnectionManager;
+    private final String sharedConnectionKey;
+    private final long receiveTimeout;
+    private final int pollBatchSize;
+    private final boolean batchDispatch;
+
+    private JMSServerConnectionFactory connectionFactory;
+    private JMSConsumerScaler consumerScaler;
+    private int consumerIndex;
+    private volatile boolean running;
+
+    public JMSPollingServerConnector(JMSServiceConfig serviceConfig, JMSListener jmsListener,
+            JMSReconnectionManager reconnectionManager) {
+        this.serviceConfig = serviceConfig;
+        this.jmsListener = jmsListener;
+        this.reconnectionManager = reconnectionManager;
+        this.sharedConnectionKey = serviceConfig.isConnectionShared()
+                ? JMSServerConnectionRegistry.createKey(serviceConfig.getProperties()) : null;
+        this.receiveTimeout = serviceConfig.getPollTimeout();
+        this.pollBatchSize = serviceConfig.getPollBatchSize();
+        this.batchDispatch = serviceConfig.getBatchSize() > 1;
+    }
+
+    @Override
+    public synchronized void start() throws JMSConnectorException {
+        Properties properties = new Properties();
+        properties.putAll(serviceConfig.getProperties());
+        connectionFactory = new JMSServerConnectionFactory(properties);
+        if (serviceConfig.isConsumerScaling()) {
+            consumerScaler = new JMSConsumerScaler(this, serviceConfig);
+        }
+        running = true;
+        try {
+            for (int i = 0; i < serviceConfig.getConcurrentConsumers(); i++) {
+                Consumer consumer = new Consumer();
+                // Fail the deployment if the destination cannot be consumed at all
+                consumer.open();
+                startConsumer(consumer);
+            }
+        } catch (JMSConnectorException | RuntimeException e) {
+            // The consumers which did start must not keep consuming for a service which failed to start
+            stop();
+            throw e;
+        }
+        if (consumerScaler != null) {
+            consumerScaler.start();
+        }
+    }
+
+    @Override
+    public synchronized boolean stop() throws JMSConnectorException {
+        if (consumerScaler != null) {
+            consumerScaler.stop();
+        }
+        running = false;
+        long deadline = System.currentTimeMillis() + Math.max(serviceConfig.getDrainTimeout(), RECEIVE_TIMEOUT * 2);
+        boolean drained = true;
+        // The retired consumers may still be processing their last messages
+        List<Consumer> stoppingConsumers = new ArrayList<>(consumers);
+        stoppingConsumers.addAll(retiredConsumers);
+        for (Consumer consumer : stoppingConsumers) {
+            try {
+                consumer.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                drained = false;
+                break;
+            }
+            drained &= !consumer.thread.isAlive();
+        }
+        if (!drained) {
+            log.warn("Consumers of " + serviceConfig.getServiceId() + " are still processing their messages after "
+                    + serviceConfig.getDrainTimeout() + "ms, they are closed once their messages complete");
+        }
+        consumers.clear();
+        retiredConsumers.clear();
+        return drained;
+    }
+
+    /**
+     * @return number of consumers currently running
+     */
+    public synchronized int getConsumerCount() {
+        return consumers.size();
+    }
+
+    /**
+     * Add or retire consumers until the given number of consumers are running. A retired consumer completes its
+     * open group and closes once its current message is processed.
+     *
+     * @param consumerCount number of consumers to run
+     */
+    public synchronized void resize(int consumerCount) {
+        if (!running) {
+            return;
+        }
+        while (consumers.size() < consumerCount) {
+            // The connection of an added consumer is opened by its own thread, retrying like a reconnect
+            startConsumer(new Consumer());
+        }
+        retiredConsumers.removeIf(consumer -> !consumer.thread.isAlive());
+        while (consumers.size() > consumerCount && consumers.size() > 1) {
+            Consumer consumer = consumers.remove(consumers.size() - 1);
+            consumer.retired = true;
+            // Kept until its thread is over, so that stopping the connector waits for its current message
+            retiredConsumers.add(consumer);
+        }
+    }
+
+    private void startConsumer(Consumer consumer) {
+        consumer.thread = new Thread(consumer, "jms-consumer-" + serviceConfig.getServiceId() + "-"
+                + (++consumerIndex));
+        consumers.add(consumer);
+        consumer.thread.start();
+    }
+
+    /**
+     * Receive loop of a single consumer, which owns its connection and session.
+     */
+    private class Consumer implements Runnable {
+        private Connection connection;
+        private JMSServerConnectionRegistry.SharedConnection sharedConnection;
+        private final Runnable lossListener = () -> connectionLost = true;
+        private Session session;
+        private MessageConsumer messageConsumer;
+        private Thread thread;
+        private volatile boolean retired;
+        private volatile boolean connectionLost;
+        private int reconnectAttempts;
+        private long connectionLostTime;
+
+        private Message lastPendingMessage;
+        private int pendingCount;
+        private long groupDeadline;
+
+        private final List<Message> receivedMessages = new ArrayList<>();
+        private final List<GroupCallback> callbacks = new ArrayList<>();
+
+        void open() throws JMSConnectorException {
+            connectionLost = false;
+            try {
+                if (sharedConnectionKey != null) {
+                    sharedConnection = JMSServerConnectionRegistry.getInstance().acquire(sharedConnectionKey,
+                            connectionFactory);
+                    sharedConnection.addLossListener(lossListener);
+                    connection = sharedConnection.getConnection();
+                } else {
+                    connection = connectionFactory.createConnection();
+                    connection.setExceptionListener(exception -> lossListener.run());
+                }
+                session = connectionFactory.createSession(connection);
+                Destination destination = connectionFactory.getDestination(session);
+                messageConsumer = connectionFactory.createMessageConsumer(session, destination);
+                connectionFactory.start(connection);
+            } catch (JMSException e) {
+                close();
+                throw new JMSConnectorException("Error while creating the consumer of " + serviceConfig.getServiceId()
+                        + ". " + e.getMessage(), e);
+            } catch (JMSConnectorException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public void run() {
+            while (running && !retired) {
+                try {
+                    if (messageConsumer == null) {
+                        open();
+                        if (reconnectAttempts > 0) {
+                            reconnectionManager.recordRecovery(reconnectAttempts,
+                                    System.currentTimeMillis() - connectionLostTime);
+                            reconnectAttempts = 0;
+                        }
+                    }
+                    Message message = messageConsumer.receive(nextReceiveTimeout());
+                    if (consumerScaler != null) {
+                        consumerScaler.recordReceive(message != null);
+                    }
+                    if (message != null) {
+                        consume(message);
+                    }
+                    if (pendingCount > 0 && System.currentTimeMillis() >= groupDeadline) {
+                        completeGroup();
+                    }
+                    if (connectionLost) {
+                        throw new JMSException("The connection of the consumer to the broker is lost");
+                    }
+                } catch (JMSException | JMSConnectorException e) {
+                    if (reconnectAttempts == 0) {
+                        connectionLostTime = System.currentTimeMillis();
+                    }
+                    long delay = reconnectionManager.nextDelay(reconnectAttempts++);
+                    log.error("Error while consuming the messages of " + serviceConfig.getServiceId()
+                            + ", reconnecting in " + delay + "ms. " + e.getMessage(), e);
+                    close();
+                    if (!pause(delay)) {
+                        break;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            try {
+                completeGroup();
+            } catch (JMSException e) {
+                log.error("Error while completing the pending messages of " + serviceConfig.getServiceId() + ". "
+                        + e.getMessage(), e);
+            }
+            close();
+        }
+
+        private long nextReceiveTimeout() {
+            if (pendingCount == 0) {
+                return receiveTimeout;
+            }
+            return Math.max(1, Math.min(receiveTimeout, groupDeadline - System.currentTimeMillis()));
+        }
+
+        /**
+         * Process the received message along with the messages which are already available, up to the poll batch
+         * size.
+         */
+        private void consume(Message firstMessage) throws JMSException, InterruptedException {
+            Message message = firstMessage;
+            int drainedCount = 0;
+            try {
+                while (message != null) {
+                    receivedMessages.add(message);
+                    if (!batchDispatch) {
+                        process();
+                    }
+                    if (++drainedCount >= pollBatchSize || !running || retired) {
+                        break;
+                    }
+                    message = messageConsumer.receiveNoWait();
+                }
+                if (batchDispatch) {
+                    process();
+                }
+            } finally {
+                receivedMessages.clear();
+            }
+        }
+
+        /**
+         * Hand the received messages to the listener in order and wait until all of them are completed.
+         */
+        private void process() throws JMSException, InterruptedException {
+            long startTime = System.nanoTime();
+            for (Message message : receivedMessages) {
+                GroupCallback callback = new GroupCallback(session);
+                callbacks.add(callback);
+                jmsListener.onMessage(message, callback);
+            }
+            boolean succeeded = true;
+            try {
+                for (GroupCallback callback : callbacks) {
+                    callback.waitForProcessing();
+                    succeeded &= callback.isSucceeded();
+                }
+            } finally {
+                callbacks.clear();
+            }
+            if (consumerScaler != null) {
+                consumerScaler.recordExecution(System.nanoTime() - startTime);
+            }
+            if (!succeeded) {
+                receivedMessages.clear();
+                abortGroup();
+                return;
+            }
+            if (pendingCount == 0) {
+                groupDeadline = System.currentTimeMillis() + serviceConfig.getCompletionGroupInterval();
+            }
+            pendingCount += receivedMessages.size();
+            lastPendingMessage = receivedMessages.get(receivedMessages.size() - 1);
+            receivedMessages.clear();
+            if (pendingCount >= serviceConfig.getCompletionGroupSize()) {
+                completeGroup();
+            }
+        }
+
+        /**
+         * Commit or acknowledge every message consumed by the session so far.
+         */
+        private void completeGroup() throws JMSException {
+            if (pendingCount == 0) {
+                return;
+            }
+            if (session.getTransacted()) {
+                session.commit();
+            } else {
+                lastPendingMessage.acknowledge();
+            }
+            resetGroup();
+        }
+
+        /**
+         * Roll back or recover the session so that the messages of the open group, including the failed one, are
+         * redelivered.
+         */
+        private void abortGroup() throws JMSException {
+            resetGroup();
+            if (session.getTransacted()) {
+                session.rollback();
+            } else {
+                session.recover();
+            }
+        }
+
+        private void resetGroup() {
+            pendingCount = 0;
+            lastPendingMessage = null;
+        }
+
+        /**
+         * Wait before reconnecting, in steps so that a stopped or retired consumer does not wait for the whole delay.
+         */
+        private boolean pause(long delay) {
+            long deadline = System.currentTimeMillis() + delay;
+            try {
+                long remaining;
+                while (running && !retired && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                    Thread.sleep(Math.min(remaining, RECEIVE_TIMEOUT));
+                }
+                return running && !retired;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        private void close() {
+            resetGroup();
+            try {
+                if (messageConsumer != null) {
+                    connectionFactory.closeConsumer(messageConsumer);
+                }
+                if (session != null) {
+                    connectionFactory.closeSession(session);
+                }
+                if (connection != null && sharedConnection == null) {
+                    connectionFactory.closeConnection(connection);
+                }
+            } catch (JMSException e) {
+                log.error("Error while closing the consumer of " + serviceConfig.getServiceId() + ". "
+                        + e.getMessage(), e);
+            } finally {
+                if (sharedConnection != null) {
+                    sharedConnection.removeLossListener(lossListener);
+                    JMSServerConnectionRegistry.getInstance().release(sharedConnection);
+                    sharedConnection = null;
+                }
+                messageConsumer = null;
+                session = null;
+                connection = null;
+            }
+        }
+    }
+
+    /**
+     * Callback which only records the outcome of the message, leaving its completion to the receive loop.
+     */
+    private static class GroupCallback extends JMSCallback {
+        private final int acknowledgementMode;
+
+        GroupCallback(Session session) throws JMSException {
+            super(session);
+            this.acknowledgementMode = session.getTransacted() ? Session.SESSION_TRANSACTED
+                    : session.getAcknowledgeMode();
+        }
+
+        @Override
+        public int getAcknowledgementMode() {
+            return acknowledgementMode;
+        }
+
+        boolean isSucceeded() {
+            return isSuccess();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSServerConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@code JMSReconnectionManager} paces the reconnections of the consumers of a JMS service after the connection to
+ * the broker is lost, and keeps the statistics of those reconnections.
+ * <p>
+ * The delay before a reconnection attempt doubles with every failed attempt, from the {@code retryInterval} of the
+ * service up to its {@code maxReconnectIntervalMs}. Half of every delay is randomized, so that the consumers of the
+ * services which lost the same broker do not reconnect in lockstep.
+ * <p>
+ * The consumers of the {@link JMSPollingServerConnector} reconnect from their own receive loops, hence the services
+ * which set {@code maxReconnectIntervalMs} are consumed by that connector. A transport server connector, whose
+ * consumers are out of reach, reconnects by its own fixed {@code retryInterval}, and is restarted as a whole only if
+ * its listener is informed of an error. Recreating the consumers on a new connection, with the
+ * same client id and subscription id, re-establishes the durable subscriptions of the service.
+ * <p>
+ * The statistics of the running services are read by the {@code getReconnectionStats} native, and those of a
+ * service which reconnected are logged once it stops.
+ *
+ * @since 0.95
+ */
+public class JMSReconnectionManager {
+    private static final Logger log = LoggerFactory.getLogger(JMSReconnectionManager.class);
+
+    private static final Map<String, JMSReconnectionManager> managers = new ConcurrentHashMap<>();
+
+    private final String serviceId;
+    private final long initialInterval;
+    private final long maxInterval;
+
+    private final LongAdder reconnectAttempts = new LongAdder();
+    private final LongAdder recoveries = new LongAdder();
+    private volatile long lastRecoveryTime;
+
+    private final AtomicBoolean reconnecting = new AtomicBoolean();
+    private volatile JMSServerConnector serverConnector;
+    private volatile Thread reconnectThread;
+    private volatile boolean stopped;
+
+    public JMSReconnectionManager(JMSServiceConfig serviceConfig) {
+        this.serviceId = serviceConfig.getServiceId();
+        this.initialInterval = Math.max(serviceConfig.getRetryInterval(), 1);
+        this.maxInterval = Math.max(serviceConfig.getMaxReconnectInterval(), initialInterval);
+        managers.put(serviceId, this);
+    }
+
+    /**
+     * Get the reconnection manager of a running service.
+     *
+     * @param serviceId name of the service
+     * @return reconnection manager of the service, or null if no such service is running
+     */
+    public static JMSReconnectionManager get(String serviceId) {
+        return managers.get(serviceId);
+    }
+
+    /**
+     * Set the transport server connector which is restarted when the listener of the service is informed of an
+     * error.
+     *
+     * @param serverConnector transport server connector of the service
+     */
+    public void setServerConnector(JMSServerConnector serverConnector) {
+        this.serverConnector = serverConnector;
+    }
+
+    /**
+     * Count a reconnection attempt and pick the delay before it.
+     *
+     * @param attempt number of the consecutive failed attempts so far
+     * @return delay in milliseconds before the attempt
+     */
+    public long nextDelay(int attempt) {
+        reconnectAttempts.increment();
+        // Shifting beyond the leading zeros of the interval would overflow
+        long ceiling = attempt < Long.numberOfLeadingZeros(initialInterval) - 1
+                ? Math.min(maxInterval, initialInterval << attempt) : maxInterval;
+        long halfCeiling = ceiling / 2;
+        return ceiling - halfCeiling + ThreadLocalRandom.current().nextLong(halfCeiling + 1);
+    }
+
+    /**
+     * Record a successful reconnection.
+     *
+     * @param attempts     number of attempts the reconnection took
+     * @param recoveryTime time in milliseconds since the connection was lost
+     */
+    public void recordRecovery(int attempts, long recoveryTime) {
+        recoveries.increment();
+        lastRecoveryTime = recoveryTime;
+        log.info("Reconnected " + serviceId + " to the broker after " + attempts + " attempt(s) in " + recoveryTime
+                + "ms");
+    }
+
+    /**
+     * Restart the transport server connector of the service in the background, unless a restart is in progress.
+     *
+     * @param throwable error the listener of the service was informed of
+     */
+    public void onConnectionError(Throwable throwable) {
+        log.error("Connection of " + serviceId + " to the broker failed. " + throwable.getMessage(), throwable);
+        if (stopped || serverConnector == null || !reconnecting.compareAndSet(false, true)) {
+            return;
+        }
+        Thread thread = new Thread(this::restartServerConnector, "jms-reconnect-" + serviceId);
+        thread.setDaemon(true);
+        reconnectThread = thread;
+        thread.start();
+    }
+
+    private void restartServerConnector() {
+        long outageStart = System.currentTimeMillis();
+        try {
+            for (int attempt = 0; !stopped; attempt++) {
+                try {
+                    serverConnector.stop();
+                } catch (JMSConnectorException e) {
+                    log.debug("Error while closing the broken consumers of " + serviceId, e);
+                }
+                long delay = nextDelay(attempt);
+                log.info("Reconnecting " + serviceId + " to the broker in " + delay + "ms");
+                Thread.sleep(delay);
+                if (stopped) {
+                    return;
+                }
+                try {
+                    serverConnector.start();
+                    recordRecovery(attempt + 1, System.currentTimeMillis() - outageStart);
+                    return;
+                } catch (JMSConnectorException | RuntimeException e) {
+                    log.error("Reconnection attempt " + (attempt + 1) + " of " + serviceId + " failed. "
+                            + e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            reconnectThread = null;
+            reconnecting.set(false);
+        }
+    }
+
+    /**
+     * Stop reconnecting, once the service is stopped.
+     */
+    public void stop() {
+        stopped = true;
+        managers.remove(serviceId, this);
+        Thread thread = reconnectThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        long attempts = getReconnectAttempts();
+        if (attempts > 0) {
+            log.info("Stopped " + serviceId + " after " + attempts + " reconnection attempt(s) and "
+                    + getRecoveries() + " reconnection(s), the latest in " + getLastRecoveryTime() + "ms");
+        }
+    }
+
+    /**
+     * @return number of reconnection attempts of the consumers of the service so far
+     */
+    public long getReconnectAttempts() {
+        return reconnectAttempts.sum();
+    }
+
+    /**
+     * @return number of successful reconnections of the consumers of the service so far
+     */
+    public long getRecoveries() {
+        return recoveries.sum();
+    }
+
+    /**
+     * @return time in milliseconds the latest successful reconnection took since the connection was lost
+     */
+    public long getLastRecoveryTime() {
+        return lastRecoveryTime;
+    }
+
+    /**
+     * @return true if the transport server connector of the service is being restarted
+     */
+    public boolean isReconnecting() {
+        return reconnecting.get();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.utils.JMSConstants;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * {@code JMSRedeliveryHandler} applies the {@link JMSRedeliveryPolicy} of a JMS service to its failed messages.
+ * <p>
+ * Instead of letting the broker redeliver a failed message right away, the handler takes the message over, so that
+ * it is acknowledged towards the broker, and dispatches it again once the delay of the redelivery elapses on the
+ * {@link JMSTimingWheel}. No consumer thread is held meanwhile. After the last redelivery the message is forwarded
+ * to the dead letter queue of the service, or handed back to the broker if the service has none.
+ * <p>
+ * The messages waiting for a redelivery are only held in memory, hence they are lost if the process crashes, which
+ * the service has to accept through its {@code inMemoryRedelivery}. When the service is stopped they are sent back
+ * to the queue of the service, so that they are not lost. The pending messages of a topic service are forwarded to
+ * its dead letter queue instead, as publishing them to the topic again would deliver them to every subscriber.
+ * <p>
+ * At most {@code maxPendingRedeliveries} failed messages are taken over. Beyond that a failed message which the
+ * broker still holds is left to the broker to redeliver, and one which it no longer holds, in the auto
+ * acknowledgement modes, goes to the dead letter queue right away.
+ *
+ * @since 0.95
+ */
+public class JMSRedeliveryHandler {
+    private static final Logger log = LoggerFactory.getLogger(JMSRedeliveryHandler.class);
+
+    private final String serviceId;
+    private final JMSRedeliveryPolicy redeliveryPolicy;
+    private final Map<String, String> deadLetterProperties;
+    private final String returnDestination;
+    private final Map<String, String> returnProperties;
+    private final Set<PendingRedelivery> pendingRedeliveries = ConcurrentHashMap.newKeySet();
+    private volatile boolean stopped;
+
+    public JMSRedeliveryHandler(JMSServiceConfig serviceConfig) {
+        this(serviceConfig.getServiceId(), serviceConfig.getRedeliveryPolicy(), serviceConfig.getProperties(),
+                serviceConfig.isTopic());
+    }
+
+    JMSRedeliveryHandler(String serviceId, JMSRedeliveryPolicy redeliveryPolicy, Map<String, String> properties,
+            boolean topic) {
+        this.serviceId = serviceId;
+        this.redeliveryPolicy = redeliveryPolicy;
+        this.deadLetterProperties = createClientProperties(properties, JMSConstants.DESTINATION_TYPE_QUEUE);
+        if (topic) {
+            this.returnDestination = redeliveryPolicy.getDeadLetterDestination();
+            this.returnProperties = deadLetterProperties;
+        } else {
+            this.returnDestination = properties.get(JMSConstants.PARAM_DESTINATION_NAME);
+            this.returnProperties = createClientProperties(properties, null);
+        }
+    }
+
+    /**
+     * The client connectors reuse the broker configuration of the service, without its consumer settings.
+     */
+    private static Map<String, String> createClientProperties(Map<String, String> serviceProperties,
+            String destinationType) {
+        Map<String, String> properties = new HashMap<>(serviceProperties);
+        properties.remove(JMSConstants.PARAM_DESTINATION_NAME);
+        properties.remove(JMSConstants.PARAM_CLIENT_ID);
+        properties.remove(JMSConstants.PARAM_DURABLE_SUB_ID);
+        properties.remove(JMSConstants.PARAM_SUB_DURABLE);
+        properties.remove(JMSConstants.PARAM_IS_SHARED_SUBSCRIPTION);
+        properties.remove(JMSConstants.CONCURRENT_CONSUMERS);
+        properties.put(JMSConstants.PARAM_ACK_MODE, JMSConstants.AUTO_ACKNOWLEDGE_MODE);
+        properties.put(JMSConstants.PARAM_JMS_CACHING, Boolean.TRUE.toString());
+        properties.put(JMSConstants.PARAM_MAX_CONNECTIONS, "1");
+        properties.put(JMSConstants.PARAM_MAX_SESSIONS_ON_CONNECTION, "4");
+        if (destinationType != null) {
+            properties.put(JMSConstants.PARAM_CONNECTION_FACTORY_TYPE, destinationType);
+        }
+        return properties;
+    }
+
+    /**
+     * Take over a message whose processing failed.
+     *
+     * @param jmsMessage   failed message
+     * @param redeliveries number of redeliveries the message already went through
+     * @param heldByBroker true if the broker redelivers the message unless it is acknowledged
+     * @param redispatch   dispatches the message again, as its next redelivery
+     * @return true if the message is taken over and is to be acknowledged, false if the broker should redeliver it
+     */
+    public boolean handleFailure(Message jmsMessage, int redeliveries, boolean heldByBroker, Runnable redispatch) {
+        if (!stopped && redeliveries < redeliveryPolicy.getMaxRedeliveries()) {
+            // A message taken over already is held either way, only new ones are bound by the cap
+            if (redeliveries > 0 || pendingRedeliveries.size() < redeliveryPolicy.getMaxPendingRedeliveries()) {
+                PendingRedelivery pendingRedelivery = new PendingRedelivery(jmsMessage, redispatch);
+                pendingRedeliveries.add(pendingRedelivery);
+                pendingRedelivery.timeout = JMSTimingWheel.getInstance().schedule(pendingRedelivery,
+                        redeliveryPolicy.getDelay(redeliveries));
+                return true;
+            }
+            if (heldByBroker) {
+                return false;
+            }
+        }
+        String deadLetterDestination = redeliveryPolicy.getDeadLetterDestination();
+        if (deadLetterDestination == null) {
+            if (!heldByBroker) {
+                log.warn("Dropped failed message " + getMessageId(jmsMessage) + " of " + serviceId + " after "
+                        + redeliveries + " redeliveries");
+            }
+            return false;
+        }
+        try {
+            send(deadLetterProperties, jmsMessage, deadLetterDestination);
+            log.warn("Forwarded message " + getMessageId(jmsMessage) + " of " + serviceId + " to "
+                    + deadLetterDestination + " after " + redeliveries + " redeliveries");
+            return true;
+        } catch (JMSConnectorException e) {
+            log.error("Error while forwarding message " + getMessageId(jmsMessage) + " of " + serviceId + " to "
+                    + deadLetterDestination + ". " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Stop redelivering, sending the messages which wait for a redelivery back to the queue of the service, or to the
+     * dead letter queue of a topic service.
+     */
+    public void stop() {
+        stopped = true;
+        for (PendingRedelivery pendingRedelivery : pendingRedeliveries) {
+            if (!pendingRedelivery.timeout.cancel()) {
+                continue;
+            }
+            pendingRedeliveries.remove(pendingRedelivery);
+            try {
+                send(returnProperties, pendingRedelivery.jmsMessage, returnDestination);
+            } catch (JMSConnectorException e) {
+                log.error("Error while returning message " + getMessageId(pendingRedelivery.jmsMessage) + " of "
+                        + serviceId + " to " + returnDestination + ", the message is lost. " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Send the message through a client connector of the broker. Package-private so that the handler can be
+     * exercised without a broker.
+     */
+    void send(Map<String, String> properties, Message jmsMessage, String destination) throws JMSConnectorException {
+        JMSClientConnectorRegistry registry = JMSClientConnectorRegistry.getInstance();
+        String registryKey = JMSClientConnectorRegistry.createKey(properties);
+        JMSClientConnector jmsClientConnector = registry.acquire(registryKey, properties);
+        try {
+            jmsClientConnector.send(jmsMessage, destination);
+        } finally {
+            registry.release(registryKey);
+        }
+    }
+
+    private static String getMessageId(Message jmsMessage) {
+        try {
+            return jmsMessage.getJMSMessageID();
+        } catch (JMSException e) {
+            return "<unknown>";
+        }
+    }
+
+    /**
+     * Message waiting on the timing wheel for its redelivery.
+     */
+    private class PendingRedelivery implements Runnable {
+        private final Message jmsMessage;
+        private final Runnable redispatch;
+        private JMSTimingWheel.Timeout timeout;
+
+        PendingRedelivery(Message jmsMessage, Runnable redispatch) {
+            this.jmsMessage = jmsMessage;
+            this.redispatch = redispatch;
+        }
+
+        @Override
+        public void run() {
+            pendingRedeliveries.remove(this);
+            redispatch.run();
+        }
+    }
+}
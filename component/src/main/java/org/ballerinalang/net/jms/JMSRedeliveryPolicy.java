@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+/**
+ * {@code JMSRedeliveryPolicy} is the redelivery policy of a JMS service, i.e. how long a failed message waits before
+ * it is dispatched again, how many times it is redelivered and where it goes afterwards.
+ *
+ * @since 0.95
+ */
+public class JMSRedeliveryPolicy {
+
+    private final long initialDelay;
+    private final double multiplier;
+    private final long maxDelay;
+    private final int maxRedeliveries;
+    private final String deadLetterDestination;
+    private final int maxPendingRedeliveries;
+
+    /**
+     * @param initialDelay           delay in milliseconds before the first redelivery
+     * @param multiplier             factor the delay grows by on every redelivery
+     * @param maxDelay               upper bound of the delay in milliseconds
+     * @param maxRedeliveries        number of redeliveries before the message is dead lettered
+     * @param deadLetterDestination  queue the messages are forwarded to after the last redelivery, or null
+     * @param maxPendingRedeliveries number of failed messages held for a redelivery at most
+     */
+    public JMSRedeliveryPolicy(long initialDelay, double multiplier, long maxDelay, int maxRedeliveries,
+            String deadLetterDestination, int maxPendingRedeliveries) {
+        this.initialDelay = initialDelay;
+        this.multiplier = multiplier;
+        this.maxDelay = maxDelay;
+        this.maxRedeliveries = maxRedeliveries;
+        this.deadLetterDestination = deadLetterDestination;
+        this.maxPendingRedeliveries = maxPendingRedeliveries;
+    }
+
+    /**
+     * @param redelivery number of the redelivery, starting from 0
+     * @return delay in milliseconds before the given redelivery
+     */
+    public long getDelay(int redelivery) {
+        double delay = initialDelay * Math.pow(multiplier, redelivery);
+        return (long) Math.min(delay, maxDelay);
+    }
+
+    /**
+     * @return number of redeliveries before the message is dead lettered
+     */
+    public int getMaxRedeliveries() {
+        return maxRedeliveries;
+    }
+
+    /**
+     * @return queue the messages are forwarded to after the last redelivery, or null if there is none
+     */
+    public String getDeadLetterDestination() {
+        return deadLetterDestination;
+    }
+
+    /**
+     * @return number of failed messages held for a redelivery at most, beyond which further failed messages are
+     * left to the broker
+     */
+    public int getMaxPendingRedeliveries() {
+        return maxPendingRedeliveries;
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.connector.api.AnnAttrValue;
+import org.ballerinalang.connector.api.Annotation;
+import org.ballerinalang.connector.api.Resource;
+import org.ballerinalang.connector.api.Service;
+import org.ballerinalang.net.jms.selector.JMSSelector;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.jms.InvalidSelectorException;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * {@code JMSResourceRouter} picks the resource of a JMS service which handles a message.
+ * <p>
+ * A service may have several resources, each annotated with a {@code route} which matches either the
+ * {@code JMSType} of the messages, the value of a message property or a message selector. The type and property
+ * routes are turned into lookup tables when the service is registered, so routing a message costs a hash lookup per
+ * routed property. Selector routes are compiled up front as well, and are only evaluated, in declaration order, for
+ * the messages no lookup table matched. A resource without a {@code route} handles the messages no route matches.
+ *
+ * @since 0.95
+ */
+public class JMSResourceRouter {
+    private static final Logger log = LoggerFactory.getLogger(JMSResourceRouter.class);
+
+    private final String serviceId;
+    private final Map<String, Resource> messageTypeRoutes = new HashMap<>();
+    private final Map<String, Map<String, Resource>> propertyRoutes = new LinkedHashMap<>();
+    private final List<SelectorRoute> selectorRoutes = new ArrayList<>();
+    private Resource defaultResource;
+
+    private JMSResourceRouter(String serviceId) {
+        this.serviceId = serviceId;
+    }
+
+    /**
+     * Build the routing tables of the given service.
+     *
+     * @param service ballerina service
+     * @return router of the service
+     * @throws BallerinaException if the service has no resource, if its single resource has a route or if the routes of
+     *                            its resources are ambiguous
+     */
+    public static JMSResourceRouter create(Service service) {
+        Resource[] resources = service.getResources();
+        if (resources.length == 0) {
+            throw new BallerinaException("No resources found to handle the JMS message in " + service.getName());
+        }
+        JMSResourceRouter router = new JMSResourceRouter(service.getName());
+        if (resources.length == 1) {
+            if (resources[0].getAnnotation(Constants.JMS_PACKAGE, Constants.ANNOTATION_JMS_ROUTE) != null) {
+                // The only resource handles every message, hence a route would never filter anything out
+                throw new BallerinaException(Constants.ANNOTATION_JMS_ROUTE + " of " + resources[0].getName()
+                        + " in " + service.getName() + " is only supported for JMS services with several resources");
+            }
+            router.defaultResource = resources[0];
+            return router;
+        }
+        for (Resource resource : resources) {
+            if (JMSDispatcher.isBatchResource(resource)) {
+                throw new BallerinaException("Resource " + resource.getName() + " of " + service.getName()
+                        + " accepts a " + Constants.JMS_MESSAGE + " array, which is only supported for JMS "
+                        + "services with a single resource");
+            }
+            router.addRoute(resource, resource.getAnnotation(Constants.JMS_PACKAGE, Constants.ANNOTATION_JMS_ROUTE));
+        }
+        return router;
+    }
+
+    private void addRoute(Resource resource, Annotation route) {
+        if (route == null) {
+            if (defaultResource != null) {
+                throw new BallerinaException("Both " + defaultResource.getName() + " and " + resource.getName()
+                        + " of " + serviceId + " have no " + Constants.ANNOTATION_JMS_ROUTE + " annotation");
+            }
+            defaultResource = resource;
+            return;
+        }
+        String messageType = getStringAttribute(route, Constants.ALIAS_ROUTE_MESSAGE_TYPE);
+        String property = getStringAttribute(route, Constants.ALIAS_ROUTE_PROPERTY);
+        String selector = getStringAttribute(route, Constants.ALIAS_ROUTE_SELECTOR);
+        if (selector != null && messageType == null && property == null) {
+            try {
+                selectorRoutes.add(new SelectorRoute(JMSSelector.compile(selector), resource));
+            } catch (InvalidSelectorException e) {
+                throw new BallerinaException("Invalid " + Constants.ALIAS_ROUTE_SELECTOR + " in the "
+                        + Constants.ANNOTATION_JMS_ROUTE + " of " + resource.getName() + " in " + serviceId + ". "
+                        + e.getMessage(), e);
+            }
+        } else if (selector != null) {
+            throw new BallerinaException(Constants.ANNOTATION_JMS_ROUTE + " of " + resource.getName() + " in "
+                    + serviceId + " should not combine a " + Constants.ALIAS_ROUTE_SELECTOR + " with other routes");
+        } else if (messageType != null && property == null) {
+            putRoute(messageTypeRoutes, messageType, resource, Constants.ALIAS_ROUTE_MESSAGE_TYPE);
+        } else if (property != null && messageType == null) {
+            String value = getStringAttribute(route, Constants.ALIAS_ROUTE_VALUE);
+            if (value == null) {
+                throw new BallerinaException(Constants.ANNOTATION_JMS_ROUTE + " of " + resource.getName() + " in "
+                        + serviceId + " has a " + Constants.ALIAS_ROUTE_PROPERTY + " without a "
+                        + Constants.ALIAS_ROUTE_VALUE);
+            }
+            putRoute(propertyRoutes.computeIfAbsent(property, key -> new HashMap<>()), value, resource,
+                    property);
+        } else {
+            throw new BallerinaException(Constants.ANNOTATION_JMS_ROUTE + " of " + resource.getName() + " in "
+                    + serviceId + " should have one of " + Constants.ALIAS_ROUTE_MESSAGE_TYPE + ", "
+                    + Constants.ALIAS_ROUTE_PROPERTY + " or " + Constants.ALIAS_ROUTE_SELECTOR);
+        }
+    }
+
+    private void putRoute(Map<String, Resource> routes, String key, Resource resource, String routeName) {
+        Resource existingResource = routes.putIfAbsent(key, resource);
+        if (existingResource != null) {
+            throw new BallerinaException("Both " + existingResource.getName() + " and " + resource.getName() + " of "
+                    + serviceId + " are routed by " + routeName + " " + key);
+        }
+    }
+
+    private static String getStringAttribute(Annotation annotation, String attributeName) {
+        AnnAttrValue value = annotation.getAnnAttrValue(attributeName);
+        return value != null && !value.getStringValue().isEmpty() ? value.getStringValue() : null;
+    }
+
+    /**
+     * Find the resource which handles the given message.
+     *
+     * @param jmsMessage inbound message
+     * @return the matching resource, or the resource without a route, or null if there is none
+     */
+    public Resource route(Message jmsMessage) {
+        if (isSingleResource()) {
+            return defaultResource;
+        }
+        try {
+            if (!messageTypeRoutes.isEmpty()) {
+                String messageType = jmsMessage.getJMSType();
+                Resource resource = messageType != null ? messageTypeRoutes.get(messageType) : null;
+                if (resource != null) {
+                    return resource;
+                }
+            }
+            for (Map.Entry<String, Map<String, Resource>> routes : propertyRoutes.entrySet()) {
+                Object value = jmsMessage.getObjectProperty(routes.getKey());
+                Resource resource = value != null ? routes.getValue().get(value.toString()) : null;
+                if (resource != null) {
+                    return resource;
+                }
+            }
+            for (SelectorRoute selectorRoute : selectorRoutes) {
+                if (selectorRoute.selector.matches(jmsMessage)) {
+                    return selectorRoute.resource;
+                }
+            }
+        } catch (JMSException e) {
+            log.error("Error while routing the message in " + serviceId + ", it is handed to the default resource. "
+                    + e.getMessage(), e);
+        }
+        return defaultResource;
+    }
+
+    /**
+     * @return the resource of a service with a single resource, or null if the service routes its messages
+     */
+    public Resource getSingleResource() {
+        return isSingleResource() ? defaultResource : null;
+    }
+
+    private boolean isSingleResource() {
+        return messageTypeRoutes.isEmpty() && propertyRoutes.isEmpty() && selectorRoutes.isEmpty();
+    }
+
+    /**
+     * @return name of the service
+     */
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    /**
+     * Resource along with the selector of its route.
+     */
+    private static class SelectorRoute {
+        private final JMSSelector selector;
+        private final Resource resource;
+
+        SelectorRoute(JMSSelector selector, Resource resource) {
+            this.selector = selector;
+            this.resource = resource;
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.connector.api.BallerinaConnectorException;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.sender.wrappers.SessionWrapper;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * {@code JMSSendBatcher} is the auto-batching producer used by the send action when batching is enabled in the
+ * client properties.
+ * <p>
+ * Sends to the same destination are queued until either the batch size is reached or the linger time of the first
+ * queued message elapses. The whole batch is then written with one session transacted session and committed once,
+ * and the future of every send in the batch is completed with the outcome of that commit. The batches of a
+ * destination are committed one after the other, so that the sends of a producer reach the destination in order.
+ * <p>
+ * Sends are batched per connection factory, batch size, linger time and destination, and the batcher of a
+ * destination is dropped once it has no batch left to commit.
+ *
+ * @since 0.95
+ */
+public class JMSSendBatcher {
+    private static final Logger log = LoggerFactory.getLogger(JMSSendBatcher.class);
+
+    /**
+     * System property to override the number of threads which commit the batches.
+     */
+    public static final String THREAD_COUNT_PROPERTY = "ballerina.jms.client.batchSendThreads";
+
+    private static final JMSSendBatcher instance = new JMSSendBatcher();
+
+    private final ScheduledExecutorService flushExecutor;
+
+    private final Map<String, DestinationBatcher> batchers = new ConcurrentHashMap<>();
+
+    private JMSSendBatcher() {
+        int threadCount = Integer.getInteger(THREAD_COUNT_PROPERTY, Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadIndex = new AtomicInteger();
+        flushExecutor = Executors.newScheduledThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "jms-send-batcher-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static JMSSendBatcher getInstance() {
+        return instance;
+    }
+
+    /**
+     * Queue the message to be sent with the next batch of the destination.
+     *
+     * @param clientConfig resolved client configuration with batching enabled
+     * @param jmsMessage   message to be sent, which should not be modified until the future completes
+     * @param destination  destination name
+     * @param future       future to be completed once the batch of the message is committed
+     */
+    public void send(JMSClientConfig clientConfig, Message jmsMessage, String destination, ConnectorFuture future) {
+        String batcherKey = clientConfig.getBatchRegistryKey() + "#" + clientConfig.getBatchSize() + "#"
+                + clientConfig.getLingerTime() + "#" + destination;
+        PendingSend pendingSend = new PendingSend(jmsMessage, future);
+        while (!batchers.computeIfAbsent(batcherKey, key -> new DestinationBatcher(key, clientConfig, destination))
+                .add(pendingSend)) {
+            // The batcher was dropped for being idle meanwhile, the send goes to a new one
+        }
+    }
+
+    /**
+     * Send and commit the given batch, completing the futures of its messages.
+     */
+    private void flush(JMSClientConfig clientConfig, String destination, List<PendingSend> batch) {
+        if (log.isDebugEnabled()) {
+            log.debug("Committing a batch of " + batch.size() + " JMS Messages to " + destination);
+        }
+        JMSClientConnectorRegistry registry = JMSClientConnectorRegistry.getInstance();
+        try {
+            JMSClientConnector jmsClientConnector = registry.acquire(clientConfig.getBatchRegistryKey(),
+                    clientConfig.getBatchProperties());
+            try {
+                sendAndCommit(jmsClientConnector, clientConfig, destination, batch);
+            } finally {
+                registry.release(clientConfig.getBatchRegistryKey());
+            }
+        } catch (JMSConnectorException | JMSException e) {
+            log.error("Error while sending a batch of " + batch.size() + " messages to " + destination + ". "
+                    + e.getMessage(), e);
+            BallerinaConnectorException exception = new BallerinaConnectorException("Failed to send message. "
+                    + e.getMessage(), e);
+            for (PendingSend pendingSend : batch) {
+                pendingSend.future.notifyFailure(exception);
+            }
+            return;
+        }
+        for (PendingSend pendingSend : batch) {
+            pendingSend.future.notifySuccess();
+        }
+    }
+
+    private void sendAndCommit(JMSClientConnector jmsClientConnector, JMSClientConfig clientConfig,
+            String destination, List<PendingSend> batch) throws JMSConnectorException, JMSException {
+        SessionWrapper sessionWrapper = jmsClientConnector.acquireSession();
+        try {
+            for (PendingSend pendingSend : batch) {
+                JMSUtils.sendMessage(sessionWrapper, clientConfig, pendingSend.message, destination);
+            }
+            sessionWrapper.getSession().commit();
+        } catch (JMSConnectorException | JMSException e) {
+            rollback(sessionWrapper);
+            throw e;
+        } finally {
+            jmsClientConnector.releaseSession(sessionWrapper);
+        }
+    }
+
+    private void rollback(SessionWrapper sessionWrapper) {
+        try {
+            sessionWrapper.getSession().rollback();
+        } catch (JMSException e) {
+            log.error("Error while rolling back the message batch. " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Collects the sends of a single destination into batches, and commits the batches one at a time.
+     */
+    private class DestinationBatcher {
+        private final String batcherKey;
+        private final JMSClientConfig clientConfig;
+        private final String destination;
+        private final Queue<List<PendingSend>> committableBatches = new ArrayDeque<>();
+        private List<PendingSend> currentBatch;
+        private boolean flushing;
+        private boolean dropped;
+
+        DestinationBatcher(String batcherKey, JMSClientConfig clientConfig, String destination) {
+            this.batcherKey = batcherKey;
+            this.clientConfig = clientConfig;
+            this.destination = destination;
+            this.currentBatch = new ArrayList<>(clientConfig.getBatchSize());
+        }
+
+        /**
+         * @return false if the batcher has been dropped, in which case the send is not taken
+         */
+        boolean add(PendingSend pendingSend) {
+            boolean flush = false;
+            synchronized (this) {
+                if (dropped) {
+                    return false;
+                }
+                currentBatch.add(pendingSend);
+                if (currentBatch.size() >= clientConfig.getBatchSize()) {
+                    flush = queueCurrentBatch();
+                } else if (currentBatch.size() == 1) {
+                    List<PendingSend> lingeringBatch = currentBatch;
+                    flushExecutor.schedule(() -> flushIfCurrent(lingeringBatch), clientConfig.getLingerTime(),
+                            TimeUnit.MILLISECONDS);
+                }
+            }
+            if (flush) {
+                flushExecutor.execute(this::flushQueuedBatches);
+            }
+            return true;
+        }
+
+        /**
+         * Commit the batch when its linger time elapses, unless it has already been queued for being full.
+         */
+        private void flushIfCurrent(List<PendingSend> lingeringBatch) {
+            synchronized (this) {
+                if (currentBatch != lingeringBatch || !queueCurrentBatch()) {
+                    return;
+                }
+            }
+            flushQueuedBatches();
+        }
+
+        /**
+         * Queue the current batch to be committed. Must be called while holding the lock of the batcher.
+         *
+         * @return true if the caller has to flush the queued batches, false if they are already being flushed
+         */
+        private boolean queueCurrentBatch() {
+            committableBatches.add(currentBatch);
+            currentBatch = new ArrayList<>(clientConfig.getBatchSize());
+            if (flushing) {
+                return false;
+            }
+            flushing = true;
+            return true;
+        }
+
+        /**
+         * Commit the queued batches in order, and drop the batcher once it is idle.
+         */
+        private void flushQueuedBatches() {
+            while (true) {
+                List<PendingSend> batch;
+                synchronized (this) {
+                    batch = committableBatches.poll();
+                    if (batch == null) {
+                        flushing = false;
+                        if (currentBatch.isEmpty()) {
+                            dropped = true;
+                            batchers.remove(batcherKey, this);
+                        }
+                        return;
+                    }
+                }
+                flush(clientConfig, destination, batch);
+            }
+        }
+    }
+
+    /**
+     * A message waiting for its batch to be committed.
+     */
+    private static class PendingSend {
+        private final Message message;
+        private final ConnectorFuture future;
+
+        PendingSend(Message message, ConnectorFuture future) {
+            this.message = message;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.factory.JMSServerConnectionFactory;
+import org.wso2.carbon.transport.jms.utils.JMSConstants;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import javax.jms.Connection;
+import javax.jms.JMSException;
+
+/**
+ * {@code JMSServerConnectionRegistry} keeps a single broker connection per distinct broker configuration for the
+ * consumers of the JMS services which share their connection, so that those consumers multiplex their sessions on
+ * one connection instead of opening a connection each.
+ * <p>
+ * Connections are reference counted by their consumers and are closed once the last consumer releases them. A
+ * connection whose exception listener is informed is marked as broken and its consumers are notified, so that they
+ * reconnect on a new connection while the broken one is closed with its last consumer.
+ *
+ * @since 0.95
+ */
+public class JMSServerConnectionRegistry {
+    private static final Logger log = LoggerFactory.getLogger(JMSServerConnectionRegistry.class);
+
+    /**
+     * Properties which configure the consumers rather than the connection.
+     */
+    private static final Set<String> CONSUMER_PROPERTIES = new HashSet<>(Arrays.asList(
+            JMSConstants.PARAM_DESTINATION_NAME, JMSConstants.PARAM_ACK_MODE, JMSConstants.PARAM_DURABLE_SUB_ID,
+            JMSConstants.PARAM_SUB_DURABLE, JMSConstants.PARAM_IS_SHARED_SUBSCRIPTION,
+            JMSConstants.CONCURRENT_CONSUMERS, JMSConstants.RETRY_INTERVAL));
+
+    private static final JMSServerConnectionRegistry instance = new JMSServerConnectionRegistry();
+
+    private final Map<String, SharedConnection> connections = new HashMap<>();
+
+    private JMSServerConnectionRegistry() {
+    }
+
+    public static JMSServerConnectionRegistry getInstance() {
+        return instance;
+    }
+
+    /**
+     * Create the registry key of the broker configuration in the given service properties. Services whose
+     * properties only differ in their destinations and consumer settings produce the same key.
+     *
+     * @param properties transport level service properties
+     * @return normalized registry key
+     */
+    public static String createKey(Map<String, String> properties) {
+        StringBuilder keyBuilder = new StringBuilder();
+        for (Map.Entry<String, String> property : new TreeMap<>(properties).entrySet()) {
+            if (!CONSUMER_PROPERTIES.contains(property.getKey())) {
+                keyBuilder.append(property.getKey()).append('=').append(property.getValue()).append(';');
+            }
+        }
+        return keyBuilder.toString();
+    }
+
+    /**
+     * Acquire the shared connection of the given broker configuration, connecting if this is its first consumer.
+     * Every successful call should be paired with a {@link #release(SharedConnection)} call.
+     *
+     * @param key               registry key created with {@link #createKey(Map)}
+     * @param connectionFactory factory of the service, used if the connection is to be created
+     * @return shared connection
+     * @throws JMSException if the connection cannot be created
+     */
+    public SharedConnection acquire(String key, JMSServerConnectionFactory connectionFactory) throws JMSException {
+        SharedConnection sharedConnection;
+        synchronized (this) {
+            sharedConnection = connections.get(key);
+            if (sharedConnection == null || sharedConnection.broken) {
+                sharedConnection = new SharedConnection(key);
+                connections.put(key, sharedConnection);
+            }
+            sharedConnection.references++;
+        }
+        try {
+            // Connecting holds back only the consumers of the same broker configuration
+            sharedConnection.connect(connectionFactory);
+            return sharedConnection;
+        } catch (JMSException | RuntimeException e) {
+            release(sharedConnection);
+            throw e;
+        }
+    }
+
+    /**
+     * Release a connection obtained through {@link #acquire(String, JMSServerConnectionFactory)}, closing it if this
+     * was its last consumer.
+     *
+     * @param sharedConnection shared connection
+     */
+    public void release(SharedConnection sharedConnection) {
+        synchronized (this) {
+            if (--sharedConnection.references > 0) {
+                return;
+            }
+            connections.remove(sharedConnection.key, sharedConnection);
+        }
+        sharedConnection.close();
+    }
+
+    /**
+     * Broker connection shared by the consumers of several services.
+     */
+    public static class SharedConnection {
+        private final String key;
+        private final List<Runnable> lossListeners = new CopyOnWriteArrayList<>();
+        private int references;
+        private volatile boolean broken;
+        private JMSServerConnectionFactory connectionFactory;
+        private Connection connection;
+
+        SharedConnection(String key) {
+            this.key = key;
+        }
+
+        private synchronized void connect(JMSServerConnectionFactory connectionFactory) throws JMSException {
+            if (connection != null) {
+                return;
+            }
+            Connection newConnection = connectionFactory.createConnection();
+            newConnection.setExceptionListener(exception -> {
+                log.error("Shared jms connection failed. " + exception.getMessage(), exception);
+                broken = true;
+                lossListeners.forEach(Runnable::run);
+            });
+            this.connectionFactory = connectionFactory;
+            this.connection = newConnection;
+        }
+
+        private synchronized void close() {
+            if (connection == null) {
+                return;
+            }
+            try {
+                connectionFactory.closeConnection(connection);
+            } catch (JMSException e) {
+                log.error("Error while closing a shared jms connection. " + e.getMessage(), e);
+            } finally {
+                connection = null;
+            }
+        }
+
+        /**
+         * @return the connection, on which every consumer creates its own session
+         */
+        public synchronized Connection getConnection() {
+            return connection;
+        }
+
+        /**
+         * Register a listener which is run when the connection fails.
+         *
+         * @param lossListener listener of a consumer of the connection
+         */
+        public void addLossListener(Runnable lossListener) {
+            lossListeners.add(lossListener);
+        }
+
+        /**
+         * Unregister a listener registered with {@link #addLossListener(Runnable)}.
+         *
+         * @param lossListener listener of a consumer of the connection
+         */
+        public void removeLossListener(Runnable lossListener) {
+            lossListeners.remove(lossListener);
+        }
+    }
+}
@@ -22,25 +22,48 @@ import org.ballerinalang.annotation.JavaSPIService;
 import org.ballerinalang.connector.api.Annotation;
 import org.ballerinalang.connector.api.BallerinaConnectorException;
 import org.ballerinalang.connector.api.BallerinaServerConnector;
+import org.ballerinalang.connector.api.Resource;
 import org.ballerinalang.connector.api.Service;
 import org.ballerinalang.util.exceptions.BallerinaException;
-import org.wso2.carbon.transport.jms.contract.JMSListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
 import org.wso2.carbon.transport.jms.impl.JMSConnectorFactoryImpl;
-import org.wso2.carbon.transport.jms.utils.JMSConstants;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * {@code JMSServerConnector} This is the JMS implementation for the {@code BallerinaServerConnector} API.
+ * <p>
+ * The server connectors of the services registered during the deployment are started together once the deployment
+ * completes, a bounded number of them in parallel, so that the JNDI lookups and connection handshakes of the
+ * services overlap. Services registered afterwards are started right away.
  *
  * @since 0.94
  */
 @JavaSPIService("org.ballerinalang.connector.api.BallerinaServerConnector")
 public class JMSServerConnector implements BallerinaServerConnector {
+    private static final Logger log = LoggerFactory.getLogger(JMSServerConnector.class);
+
+    /**
+     * System property to override the number of services started in parallel when the deployment completes.
+     */
+    public static final String STARTUP_PARALLELISM_PROPERTY = "ballerina.jms.server.startupParallelism";
 
-    private Map<String, org.wso2.carbon.transport.jms.contract.JMSServerConnector> connectorMap = new HashMap<>();
+    private static final int DEFAULT_STARTUP_PARALLELISM = 16;
+
+    private Map<String, DeployedService> serviceMap = new HashMap<>();
+    private List<String> pendingServiceIds = new ArrayList<>();
+    private boolean deploymentCompleted;
 
     @Override
     public String getProtocolPackage() {
@@ -55,41 +78,186 @@ public class JMSServerConnector implements BallerinaServerConnector {
             throw new BallerinaException("Error jms 'configuration' annotation missing in " + service.getName());
         }
 
-        Map<String, String> configParams = JMSUtils.preProcessJmsConfig(jmsConfig);
-
-        String serviceId = service.getName();
-        configParams.putIfAbsent(JMSConstants.PARAM_DESTINATION_NAME, serviceId);
+        JMSResourceRouter resourceRouter = JMSResourceRouter.create(service);
+        Resource resource = resourceRouter.getSingleResource();
+        boolean batchResource = resource != null && JMSDispatcher.isBatchResource(resource);
+        JMSServiceConfig serviceConfig = new JMSServiceConfig(service, jmsConfig, batchResource);
+        String serviceId = serviceConfig.getServiceId();
 
         try {
             // Create a new JMS Listener for this this JMS Service and include it in a new JMS Server Connector
-            JMSListener jmsListener = new JMSListenerImpl(JMSUtils.extractJMSResource(service));
-            org.wso2.carbon.transport.jms.contract.JMSServerConnector serverConnector = new JMSConnectorFactoryImpl()
-                    .createServerConnector(serviceId, configParams, jmsListener);
+            JMSReconnectionManager reconnectionManager = new JMSReconnectionManager(serviceConfig);
+            JMSServiceListener jmsListener = batchResource
+                    ? new JMSBatchListener(resource, serviceConfig, reconnectionManager)
+                    : new JMSListenerImpl(resourceRouter, serviceConfig, reconnectionManager);
+            org.wso2.carbon.transport.jms.contract.JMSServerConnector serverConnector;
+            if (serviceConfig.isConnectorOwnedConsumers()) {
+                serverConnector = new JMSPollingServerConnector(serviceConfig, jmsListener, reconnectionManager);
+            } else {
+                serverConnector = new JMSConnectorFactoryImpl()
+                        .createServerConnector(serviceId, serviceConfig.getProperties(), jmsListener);
+                reconnectionManager.setServerConnector(serverConnector);
+            }
 
-            connectorMap.put(serviceId, serverConnector);
-            serverConnector.start();
+            serviceMap.put(serviceId, new DeployedService(serviceConfig, jmsListener, serverConnector,
+                    reconnectionManager));
+            if (deploymentCompleted) {
+                serverConnector.start();
+            } else {
+                pendingServiceIds.add(serviceId);
+            }
         } catch (JMSConnectorException e) {
+            discardFailedService(serviceId);
             throw new BallerinaException(
                     "Error when starting to listen to the queue/topic while " + serviceId + " deployment", e);
         }
     }
 
+    /**
+     * Drain the service before its server connector is stopped: stop taking messages, wait up to the drain timeout
+     * of the service for the in-flight messages to complete, so that their acknowledgements and commits reach the
+     * broker, and then close the consumers.
+     */
     @Override
     public void serviceUnregistered(Service service) throws BallerinaConnectorException {
         String serviceId = service.getName();
+        DeployedService deployedService = serviceMap.remove(serviceId);
+        if (deployedService == null) {
+            return;
+        }
+        JMSServiceConfig serviceConfig = deployedService.serviceConfig;
+        JMSServiceListener jmsListener = deployedService.jmsListener;
+        org.wso2.carbon.transport.jms.contract.JMSServerConnector serverConnector = deployedService.serverConnector;
+        deployedService.reconnectionManager.stop();
+        if (pendingServiceIds.remove(serviceId)) {
+            // The service was never started
+            jmsListener.close();
+            return;
+        }
+        long startTime = System.currentTimeMillis();
+        int pendingMessages;
         try {
-            org.wso2.carbon.transport.jms.contract.JMSServerConnector serverConnector = connectorMap.get(serviceId);
-            if (null != serverConnector) {
+            if (serverConnector instanceof JMSPollingServerConnector) {
+                // The receive loops stop taking messages and wait for their current ones before they complete
+                // their open groups, hence the listener is already drained once the connector is stopped
+                boolean drained = serverConnector.stop();
+                pendingMessages = jmsListener.drain(drained ? 0 : serviceConfig.getDrainTimeout());
+            } else {
+                pendingMessages = jmsListener.drain(serviceConfig.getDrainTimeout());
                 serverConnector.stop();
             }
         } catch (JMSConnectorException e) {
             throw new BallerinaException(
                     "Error while stopping the jms server connector related with the service " + serviceId, e);
+        } finally {
+            jmsListener.close();
+        }
+        long drainTime = System.currentTimeMillis() - startTime;
+        if (pendingMessages == 0) {
+            log.info("Drained " + serviceId + " in " + drainTime + "ms");
+        } else {
+            log.warn("Stopped " + serviceId + " after " + drainTime + "ms with " + pendingMessages
+                    + " messages still in flight");
         }
     }
 
     @Override
     public void deploymentComplete() throws BallerinaConnectorException {
+        deploymentCompleted = true;
+        if (pendingServiceIds.isEmpty()) {
+            return;
+        }
+        List<String> serviceIds = new ArrayList<>(pendingServiceIds);
+        pendingServiceIds.clear();
+        int parallelism = Math.max(1, Math.min(serviceIds.size(),
+                Integer.getInteger(STARTUP_PARALLELISM_PROPERTY, DEFAULT_STARTUP_PARALLELISM)));
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService startupExecutor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "jms-service-starter-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long startTime = System.currentTimeMillis();
+        Map<String, Future<?>> startups = new LinkedHashMap<>();
+        for (String serviceId : serviceIds) {
+            org.wso2.carbon.transport.jms.contract.JMSServerConnector serverConnector = serviceMap.get(serviceId)
+                    .serverConnector;
+            startups.put(serviceId, startupExecutor.submit(() -> {
+                serverConnector.start();
+                return null;
+            }));
+        }
+        startupExecutor.shutdown();
+
+        List<String> failedServiceIds = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Future<?>> startup : startups.entrySet()) {
+                try {
+                    startup.getValue().get();
+                } catch (ExecutionException e) {
+                    String serviceId = startup.getKey();
+                    log.error("Error when starting to listen to the queue/topic while " + serviceId + " deployment. "
+                            + e.getCause().getMessage(), e.getCause());
+                    failedServiceIds.add(serviceId);
+                    failures.add(e.getCause());
+                    discardFailedService(serviceId);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            startupExecutor.shutdownNow();
+            throw new BallerinaException("Interrupted while starting the JMS services", e);
+        }
+        log.info("Started " + (serviceIds.size() - failedServiceIds.size()) + " of " + serviceIds.size()
+                + " JMS services in " + (System.currentTimeMillis() - startTime) + "ms");
+        if (!failedServiceIds.isEmpty()) {
+            BallerinaException exception = new BallerinaException(
+                    "Error when starting to listen to the queue/topic while " + String.join(", ", failedServiceIds)
+                            + " deployment", failures.get(0));
+            for (int i = 1; i < failures.size(); i++) {
+                exception.addSuppressed(failures.get(i));
+            }
+            throw exception;
+        }
+    }
 
+    /**
+     * Remove a service whose server connector failed to start, stopping whatever part of it did start, so that a
+     * service reported as failed neither consumes messages nor reconnects.
+     */
+    private void discardFailedService(String serviceId) {
+        DeployedService deployedService = serviceMap.remove(serviceId);
+        if (deployedService == null) {
+            return;
+        }
+        deployedService.reconnectionManager.stop();
+        try {
+            deployedService.serverConnector.stop();
+        } catch (JMSConnectorException | RuntimeException e) {
+            log.warn("Error while stopping the jms server connector of the failed service " + serviceId + ". "
+                    + e.getMessage(), e);
+        } finally {
+            deployedService.jmsListener.close();
+        }
+    }
+
+    /**
+     * Configuration, listener and connectors of a registered service.
+     */
+    private static class DeployedService {
+        private final JMSServiceConfig serviceConfig;
+        private final JMSServiceListener jmsListener;
+        private final org.wso2.carbon.transport.jms.contract.JMSServerConnector serverConnector;
+        private final JMSReconnectionManager reconnectionManager;
+
+        DeployedService(JMSServiceConfig serviceConfig, JMSServiceListener jmsListener,
+                org.wso2.carbon.transport.jms.contract.JMSServerConnector serverConnector,
+                JMSReconnectionManager reconnectionManager) {
+            this.serviceConfig = serviceConfig;
+            this.jmsListener = jmsListener;
+            this.serverConnector = serverConnector;
+            this.reconnectionManager = reconnectionManager;
+        }
     }
 }
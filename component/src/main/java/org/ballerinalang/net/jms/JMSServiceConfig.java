@@ -0,0 +1,589 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.connector.api.AnnAttrValue;
+import org.ballerinalang.connector.api.Annotation;
+import org.ballerinalang.connector.api.Service;
+import org.ballerinalang.net.jms.selector.JMSSelector;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.wso2.carbon.transport.jms.utils.JMSConstants;
+
+import java.util.Map;
+import javax.jms.InvalidSelectorException;
+
+/**
+ * {@code JMSServiceConfig} is the resolved form of the {@code configuration} annotation of a JMS service. It holds
+ * the transport level server connector properties along with the settings which are handled by the Ballerina side of
+ * the connector.
+ *
+ * @since 0.95
+ */
+public class JMSServiceConfig {
+
+    private static final int DEFAULT_BATCH_SIZE = 10;
+    private static final long DEFAULT_BATCH_TIMEOUT = 1000;
+    private static final long DEFAULT_GROUP_INTERVAL = 1000;
+    private static final int DEFAULT_MAX_CONCURRENT_DISPATCHES = 256;
+    private static final int DEFAULT_IN_FLIGHT_RESUME_PERCENT = 50;
+    private static final int DEFAULT_ORDERED_MAX_IN_FLIGHT = 1024;
+    private static final double DEFAULT_REDELIVERY_MULTIPLIER = 2.0;
+    private static final long DEFAULT_MAX_REDELIVERY_DELAY = 60000;
+    private static final int DEFAULT_MAX_REDELIVERIES = 3;
+    private static final int DEFAULT_MAX_PENDING_REDELIVERIES = 1000;
+    private static final int DEFAULT_DEDUPLICATION_CAPACITY = 65536;
+    private static final long DEFAULT_DRAIN_TIMEOUT = 30000;
+    private static final long DEFAULT_RETRY_INTERVAL = 10000;
+    private static final long DEFAULT_MAX_RECONNECT_INTERVAL = 300000;
+    private static final int DEFAULT_POLL_BATCH_SIZE = 10;
+    private static final long DEFAULT_POLL_TIMEOUT = 1000;
+
+    private final String serviceId;
+    private final Map<String, String> properties;
+    private final int concurrentConsumers;
+    private final int minConcurrentConsumers;
+    private final int maxConcurrentConsumers;
+    private final boolean acknowledgedBySession;
+    private final boolean topic;
+    private final int batchSize;
+    private final long batchTimeout;
+    private final int completionGroupSize;
+    private final long completionGroupInterval;
+    private final boolean virtualThreadDispatch;
+    private final int maxInFlight;
+    private final long maxInFlightBytes;
+    private final int inFlightResumePercent;
+    private final int orderedLanes;
+    private final String orderingKey;
+    private final JMSSelector localSelector;
+    private final JMSRedeliveryPolicy redeliveryPolicy;
+    private final long deduplicationWindow;
+    private final String deduplicationKey;
+    private final int deduplicationCapacity;
+    private final boolean deduplicationBloomFilter;
+    private final long drainTimeout;
+    private final long retryInterval;
+    private final long maxReconnectInterval;
+    private final boolean reconnectionConfigured;
+    private final boolean connectionShared;
+    private final boolean pollingConsumer;
+    private final int pollBatchSize;
+    private final long pollTimeout;
+    private final int maxConcurrentInvocations;
+    private final int schedulingWeight;
+
+    /**
+     * Resolve the configuration of the given service.
+     *
+     * @param service  ballerina service
+     * @param jmsConfig {@code configuration} annotation of the service
+     * @param batchResource true if the resource of the service accepts a batch of messages
+     */
+    public JMSServiceConfig(Service service, Annotation jmsConfig, boolean batchResource) {
+        this.serviceId = service.getName();
+        this.properties = JMSUtils.preProcessJmsConfig(jmsConfig);
+        properties.putIfAbsent(JMSConstants.PARAM_DESTINATION_NAME, serviceId);
+
+        String concurrentConsumersValue = properties.get(JMSConstants.CONCURRENT_CONSUMERS);
+        int configuredConsumers = concurrentConsumersValue != null ? Integer.parseInt(concurrentConsumersValue) : 1;
+        this.maxConcurrentConsumers = (int) getIntAttribute(jmsConfig, Constants.ALIAS_MAX_CONCURRENT_CONSUMERS, 0);
+        this.minConcurrentConsumers = (int) getIntAttribute(jmsConfig, Constants.ALIAS_MIN_CONCURRENT_CONSUMERS, 1);
+        if (maxConcurrentConsumers > 0) {
+            if (maxConcurrentConsumers < minConcurrentConsumers) {
+                throw new BallerinaException(Constants.ALIAS_MAX_CONCURRENT_CONSUMERS + " of " + serviceId
+                        + " is less than its " + Constants.ALIAS_MIN_CONCURRENT_CONSUMERS);
+            }
+            // Scaled consumers start from the configured count, kept within the bounds
+            configuredConsumers = Math.max(minConcurrentConsumers,
+                    Math.min(maxConcurrentConsumers, configuredConsumers));
+        }
+        this.concurrentConsumers = configuredConsumers;
+        String acknowledgementMode = properties.get(JMSConstants.PARAM_ACK_MODE);
+        this.acknowledgedBySession = acknowledgementMode != null
+                && !JMSConstants.AUTO_ACKNOWLEDGE_MODE.equals(acknowledgementMode)
+                && !JMSConstants.DUPS_OK_ACKNOWLEDGE_MODE.equals(acknowledgementMode);
+        this.topic = JMSConstants.DESTINATION_TYPE_TOPIC.equalsIgnoreCase(
+                properties.get(JMSConstants.PARAM_CONNECTION_FACTORY_TYPE));
+
+        int configuredBatchSize = (int) getIntAttribute(jmsConfig, Constants.ALIAS_BATCH_SIZE, 0);
+        if (configuredBatchSize > 0 && !batchResource) {
+            throw new BallerinaException(Constants.ALIAS_BATCH_SIZE + " is set in " + serviceId
+                    + ", but its resource does not accept a " + Constants.JMS_MESSAGE + " array");
+        }
+        this.batchSize = batchResource ? (configuredBatchSize > 0 ? configuredBatchSize : DEFAULT_BATCH_SIZE) : 1;
+        this.batchTimeout = getIntAttribute(jmsConfig, Constants.ALIAS_BATCH_TIMEOUT, DEFAULT_BATCH_TIMEOUT);
+
+        int ackBatchSize = (int) getIntAttribute(jmsConfig, Constants.ALIAS_ACK_BATCH_SIZE, 1);
+        int commitBatchSize = (int) getIntAttribute(jmsConfig, Constants.ALIAS_COMMIT_BATCH_SIZE, 1);
+        validateGroupMode(ackBatchSize, Constants.ALIAS_ACK_BATCH_SIZE, JMSConstants.CLIENT_ACKNOWLEDGE_MODE,
+                acknowledgementMode);
+        validateGroupMode(commitBatchSize, Constants.ALIAS_COMMIT_BATCH_SIZE, JMSConstants.SESSION_TRANSACTED_MODE,
+                acknowledgementMode);
+        if (commitBatchSize > 1) {
+            this.completionGroupSize = commitBatchSize;
+            this.completionGroupInterval = getIntAttribute(jmsConfig, Constants.ALIAS_COMMIT_INTERVAL,
+                    DEFAULT_GROUP_INTERVAL);
+        } else {
+            this.completionGroupSize = ackBatchSize;
+            this.completionGroupInterval = getIntAttribute(jmsConfig, Constants.ALIAS_ACK_INTERVAL,
+                    DEFAULT_GROUP_INTERVAL);
+        }
+
+        AnnAttrValue dispatchMode = jmsConfig.getAnnAttrValue(Constants.ALIAS_DISPATCH_MODE);
+        String dispatchModeValue = dispatchMode != null && !dispatchMode.getStringValue().isEmpty()
+                ? dispatchMode.getStringValue() : Constants.DISPATCH_MODE_TRANSPORT;
+        if (!Constants.DISPATCH_MODE_TRANSPORT.equals(dispatchModeValue)
+                && !Constants.DISPATCH_MODE_VIRTUAL_THREAD.equals(dispatchModeValue)) {
+            throw new BallerinaException("Unknown " + Constants.ALIAS_DISPATCH_MODE + " " + dispatchModeValue + " in "
+                    + serviceId + ", expected " + Constants.DISPATCH_MODE_TRANSPORT + " or "
+                    + Constants.DISPATCH_MODE_VIRTUAL_THREAD);
+        }
+        this.virtualThreadDispatch = Constants.DISPATCH_MODE_VIRTUAL_THREAD.equals(dispatchModeValue);
+        int configuredMaxInFlight = (int) getIntAttribute(jmsConfig, Constants.ALIAS_MAX_IN_FLIGHT, 0);
+        if (virtualThreadDispatch) {
+            // The concurrency cap of the virtual thread dispatches is enforced through the in-flight window
+            int maxConcurrentDispatches = (int) getIntAttribute(jmsConfig, Constants.ALIAS_MAX_CONCURRENT_DISPATCHES,
+                    DEFAULT_MAX_CONCURRENT_DISPATCHES);
+            configuredMaxInFlight = configuredMaxInFlight > 0
+                    ? Math.min(configuredMaxInFlight, maxConcurrentDispatches) : maxConcurrentDispatches;
+        }
+        this.maxInFlightBytes = getIntAttribute(jmsConfig, Constants.ALIAS_MAX_IN_FLIGHT_BYTES, 0);
+        this.inFlightResumePercent = (int) Math.min(getIntAttribute(jmsConfig,
+                Constants.ALIAS_IN_FLIGHT_RESUME_PERCENT, DEFAULT_IN_FLIGHT_RESUME_PERCENT), 100);
+
+        this.orderedLanes = (int) getIntAttribute(jmsConfig, Constants.ALIAS_ORDERED_LANES, 0);
+        if (orderedLanes > 0 && batchResource) {
+            throw new BallerinaException(Constants.ALIAS_ORDERED_LANES + " of " + serviceId
+                    + " cannot be used with a resource which accepts a " + Constants.JMS_MESSAGE + " array");
+        }
+        if (orderedLanes > 0 && acknowledgedBySession) {
+            // The consumer waits for the completion of every message, hence a single consumer leaves nothing to
+            // the lanes, while several consumers take the messages of a key in parallel before they reach a lane
+            throw new BallerinaException(Constants.ALIAS_ORDERED_LANES + " of " + serviceId
+                    + " can only be used with the AUTO_ACKNOWLEDGE and DUPS_OK_ACKNOWLEDGE modes");
+        }
+        if (orderedLanes > 0 && configuredMaxInFlight <= 0 && maxInFlightBytes <= 0) {
+            // The lanes queue the messages of a busy key, which are bounded only by the in-flight window
+            configuredMaxInFlight = DEFAULT_ORDERED_MAX_IN_FLIGHT;
+        }
+        this.maxInFlight = configuredMaxInFlight;
+        AnnAttrValue orderingKeyValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_ORDERING_KEY);
+        this.orderingKey = orderingKeyValue != null && !orderingKeyValue.getStringValue().isEmpty()
+                ? orderingKeyValue.getStringValue() : Constants.DEFAULT_ORDERING_KEY;
+
+        AnnAttrValue localSelectorValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_LOCAL_SELECTOR);
+        try {
+            this.localSelector = localSelectorValue != null && !localSelectorValue.getStringValue().isEmpty()
+                    ? JMSSelector.compile(localSelectorValue.getStringValue()) : null;
+        } catch (InvalidSelectorException e) {
+            throw new BallerinaException("Invalid " + Constants.ALIAS_LOCAL_SELECTOR + " in " + serviceId + ". "
+                    + e.getMessage(), e);
+        }
+
+        long redeliveryDelay = getIntAttribute(jmsConfig, Constants.ALIAS_REDELIVERY_DELAY, 0);
+        AnnAttrValue deadLetterValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_DEAD_LETTER_DESTINATION);
+        String deadLetterDestination = deadLetterValue != null && !deadLetterValue.getStringValue().isEmpty()
+                ? deadLetterValue.getStringValue() : null;
+        if (redeliveryDelay > 0 || deadLetterDestination != null) {
+            if (batchResource) {
+                throw new BallerinaException("The redelivery policy of " + serviceId + " cannot be used with a "
+                        + "resource which accepts a " + Constants.JMS_MESSAGE + " array");
+            }
+            if (topic && deadLetterDestination == null) {
+                // Handing the pending redeliveries back to a topic would publish them to every other subscriber
+                throw new BallerinaException("The redelivery policy of the topic service " + serviceId
+                        + " requires a " + Constants.ALIAS_DEAD_LETTER_DESTINATION);
+            }
+            AnnAttrValue multiplierValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_REDELIVERY_MULTIPLIER);
+            double multiplier = multiplierValue != null && multiplierValue.getFloatValue() >= 1
+                    ? multiplierValue.getFloatValue() : DEFAULT_REDELIVERY_MULTIPLIER;
+            AnnAttrValue maxRedeliveriesValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_MAX_REDELIVERIES);
+            int maxRedeliveries = maxRedeliveriesValue != null && maxRedeliveriesValue.getIntValue() >= 0
+                    ? (int) maxRedeliveriesValue.getIntValue() : DEFAULT_MAX_REDELIVERIES;
+            AnnAttrValue inMemoryRedeliveryValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_IN_MEMORY_REDELIVERY);
+            if (maxRedeliveries > 0 && (inMemoryRedeliveryValue == null
+                    || !inMemoryRedeliveryValue.getBooleanValue())) {
+                throw new BallerinaException("The redelivery policy of " + serviceId + " acknowledges the failed "
+                        + "messages and holds them in memory until their redelivery, where they are lost if the "
+                        + "process crashes. Set " + Constants.ALIAS_IN_MEMORY_REDELIVERY + " to accept this, or "
+                        + Constants.ALIAS_MAX_REDELIVERIES + " to 0 to only dead letter the failed messages");
+            }
+            this.redeliveryPolicy = new JMSRedeliveryPolicy(redeliveryDelay, multiplier,
+                    getIntAttribute(jmsConfig, Constants.ALIAS_MAX_REDELIVERY_DELAY, DEFAULT_MAX_REDELIVERY_DELAY),
+                    maxRedeliveries, deadLetterDestination, (int) getIntAttribute(jmsConfig,
+                    Constants.ALIAS_MAX_PENDING_REDELIVERIES, DEFAULT_MAX_PENDING_REDELIVERIES));
+        } else {
+            this.redeliveryPolicy = null;
+        }
+
+        this.deduplicationWindow = getIntAttribute(jmsConfig, Constants.ALIAS_DEDUPLICATION_WINDOW, 0);
+        if (deduplicationWindow > 0 && batchResource) {
+            throw new BallerinaException(Constants.ALIAS_DEDUPLICATION_WINDOW + " of " + serviceId
+                    + " cannot be used with a resource which accepts a " + Constants.JMS_MESSAGE + " array");
+        }
+        AnnAttrValue deduplicationKeyValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_DEDUPLICATION_KEY);
+        this.deduplicationKey = deduplicationKeyValue != null && !deduplicationKeyValue.getStringValue().isEmpty()
+                ? deduplicationKeyValue.getStringValue() : Constants.DEFAULT_DEDUPLICATION_KEY;
+        this.deduplicationCapacity = (int) getIntAttribute(jmsConfig, Constants.ALIAS_DEDUPLICATION_CAPACITY,
+                DEFAULT_DEDUPLICATION_CAPACITY);
+        AnnAttrValue bloomFilterValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_DEDUPLICATION_BLOOM_FILTER);
+        this.deduplicationBloomFilter = bloomFilterValue != null && bloomFilterValue.getBooleanValue();
+
+        this.drainTimeout = getIntAttribute(jmsConfig, Constants.ALIAS_DRAIN_TIMEOUT, DEFAULT_DRAIN_TIMEOUT);
+
+        String retryIntervalValue = properties.get(JMSConstants.RETRY_INTERVAL);
+        this.retryInterval = retryIntervalValue != null ? Long.parseLong(retryIntervalValue) : DEFAULT_RETRY_INTERVAL;
+        this.maxReconnectInterval = getIntAttribute(jmsConfig, Constants.ALIAS_MAX_RECONNECT_INTERVAL,
+                DEFAULT_MAX_RECONNECT_INTERVAL);
+        // The existing retryInterval property keeps the transport connector, the paced reconnections are opted into
+        this.reconnectionConfigured = getIntAttribute(jmsConfig, Constants.ALIAS_MAX_RECONNECT_INTERVAL, 0) > 0;
+        AnnAttrValue shareConnectionValue = jmsConfig.getAnnAttrValue(Constants.ALIAS_SHARE_CONNECTION);
+        this.connectionShared = shareConnectionValue != null && shareConnectionValue.getBooleanValue();
+
+        AnnAttrValue consumerMode = jmsConfig.getAnnAttrValue(Constants.ALIAS_CONSUMER_MODE);
+        String consumerModeValue = consumerMode != null && !consumerMode.getStringValue().isEmpty()
+                ? consumerMode.getStringValue() : Constants.CONSUMER_MODE_PUSH;
+        if (!Constants.CONSUMER_MODE_PUSH.equals(consumerModeValue)
+                && !Constants.CONSUMER_MODE_POLL.equals(consumerModeValue)) {
+            throw new BallerinaException("Unknown " + Constants.ALIAS_CONSUMER_MODE + " " + consumerModeValue + " in "
+                    + serviceId + ", expected " + Constants.CONSUMER_MODE_PUSH + " or " + Constants.CONSUMER_MODE_POLL);
+        }
+        this.pollingConsumer = Constants.CONSUMER_MODE_POLL.equals(consumerModeValue);
+        this.pollBatchSize = pollingConsumer
+                ? (int) getIntAttribute(jmsConfig, Constants.ALIAS_POLL_BATCH_SIZE, DEFAULT_POLL_BATCH_SIZE) : 1;
+        this.pollTimeout = getIntAttribute(jmsConfig, Constants.ALIAS_POLL_TIMEOUT, DEFAULT_POLL_TIMEOUT);
+
+        this.maxConcurrentInvocations = (int) getIntAttribute(jmsConfig, Constants.ALIAS_MAX_CONCURRENT_INVOCATIONS,
+                0);
+        this.schedulingWeight = (int) getIntAttribute(jmsConfig, Constants.ALIAS_SCHEDULING_WEIGHT, 0);
+        if (isScheduled() && batchResource) {
+            throw new BallerinaException("The scheduling of " + serviceId + " cannot be used with a resource which "
+                    + "accepts a " + Constants.JMS_MESSAGE + " array");
+        }
+        if (orderedLanes > 0 && (concurrentConsumers > 1 || isConsumerScaling())) {
+            // Several consumers take the messages of a key in parallel before they reach a lane
+            throw new BallerinaException(Constants.ALIAS_ORDERED_LANES + " of " + serviceId
+                    + " can only be used with a single consumer");
+        }
+        if (orderedLanes > 0 && isConnectorOwnedConsumers()) {
+            // The receive loops of the connector wait for the completion of every message, which leaves nothing to
+            // the lanes
+            throw new BallerinaException(Constants.ALIAS_ORDERED_LANES + " of " + serviceId + " cannot be used with "
+                    + Constants.CONSUMER_MODE_POLL + " " + Constants.ALIAS_CONSUMER_MODE + ", "
+                    + Constants.ALIAS_SHARE_CONNECTION + " or " + Constants.ALIAS_MAX_RECONNECT_INTERVAL);
+        }
+    }
+
+    private void validateGroupMode(int groupSize, String attributeName, String requiredMode,
+            String acknowledgementMode) {
+        if (groupSize > 1 && !requiredMode.equals(acknowledgementMode)) {
+            throw new BallerinaException(attributeName + " of " + serviceId + " can only be used with "
+                    + requiredMode + " " + Constants.ALIAS_ACK_MODE);
+        }
+    }
+
+    static long getIntAttribute(Annotation jmsConfig, String attributeName, long defaultValue) {
+        AnnAttrValue value = jmsConfig.getAnnAttrValue(attributeName);
+        return value != null && value.getIntValue() > 0 ? value.getIntValue() : defaultValue;
+    }
+
+    /**
+     * @return name of the service
+     */
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    /**
+     * @return transport level server connector properties
+     */
+    public Map<String, String> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @return number of consumers created for the service when it starts
+     */
+    public int getConcurrentConsumers() {
+        return concurrentConsumers;
+    }
+
+    /**
+     * @return true if the number of consumers is scaled with the load of the service
+     */
+    public boolean isConsumerScaling() {
+        return maxConcurrentConsumers > 0;
+    }
+
+    /**
+     * @return lower bound of the number of consumers when they are scaled
+     */
+    public int getMinConcurrentConsumers() {
+        return minConcurrentConsumers;
+    }
+
+    /**
+     * @return upper bound of the number of consumers when they are scaled
+     */
+    public int getMaxConcurrentConsumers() {
+        return maxConcurrentConsumers;
+    }
+
+    /**
+     * @return true if every message is completed through a callback, i.e. client acknowledged or transacted
+     */
+    public boolean isAcknowledgedBySession() {
+        return acknowledgedBySession;
+    }
+
+    /**
+     * @return maximum number of messages dispatched to a batch resource at once, 1 for a single message resource
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return time in milliseconds a partially filled batch waits for more messages before it is dispatched
+     */
+    public long getBatchTimeout() {
+        return batchTimeout;
+    }
+
+    /**
+     * @return true if the processed messages are acknowledged or committed as groups instead of one by one
+     */
+    public boolean isGroupedCompletion() {
+        return completionGroupSize > 1;
+    }
+
+    /**
+     * @return maximum number of messages acknowledged or committed together
+     */
+    public int getCompletionGroupSize() {
+        return completionGroupSize;
+    }
+
+    /**
+     * @return maximum time in milliseconds a processed message waits for its acknowledgement or commit
+     */
+    public long getCompletionGroupInterval() {
+        return completionGroupInterval;
+    }
+
+    /**
+     * @return true if the resource invocations are dispatched on virtual threads instead of the consumer threads
+     */
+    public boolean isVirtualThreadDispatch() {
+        return virtualThreadDispatch;
+    }
+
+    /**
+     * @return true if the number or the size of the messages in flight is bounded
+     */
+    public boolean isInFlightBounded() {
+        return maxInFlight > 0 || maxInFlightBytes > 0;
+    }
+
+    /**
+     * @return maximum number of messages whose resource invocations are not over yet, 0 if unbounded
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return maximum total body size of the messages whose resource invocations are not over yet, 0 if unbounded
+     */
+    public long getMaxInFlightBytes() {
+        return maxInFlightBytes;
+    }
+
+    /**
+     * @return percentage of the in-flight limits a paused service has to drain below before it resumes
+     */
+    public int getInFlightResumePercent() {
+        return inFlightResumePercent;
+    }
+
+    /**
+     * @return true if the messages are dispatched on serial lanes by their ordering key
+     */
+    public boolean isOrderedDispatch() {
+        return orderedLanes > 0;
+    }
+
+    /**
+     * @return number of serial lanes processed in parallel, 0 if the messages are not ordered
+     */
+    public int getOrderedLanes() {
+        return orderedLanes;
+    }
+
+    /**
+     * @return name of the message property the messages are ordered by
+     */
+    public String getOrderingKey() {
+        return orderingKey;
+    }
+
+    /**
+     * @return selector evaluated by the connector for every message, or null if the messages are not filtered
+     */
+    public JMSSelector getLocalSelector() {
+        return localSelector;
+    }
+
+    /**
+     * @return redelivery policy of the failed messages, or null if their redelivery is left to the broker
+     */
+    public JMSRedeliveryPolicy getRedeliveryPolicy() {
+        return redeliveryPolicy;
+    }
+
+    /**
+     * @return true if the duplicate messages are dropped before the resource is invoked
+     */
+    public boolean isDeduplicated() {
+        return deduplicationWindow > 0;
+    }
+
+    /**
+     * @return time in milliseconds the deduplication keys are remembered for, 0 if the messages are not deduplicated
+     */
+    public long getDeduplicationWindow() {
+        return deduplicationWindow;
+    }
+
+    /**
+     * @return message property the messages are deduplicated by
+     */
+    public String getDeduplicationKey() {
+        return deduplicationKey;
+    }
+
+    /**
+     * @return maximum number of deduplication keys remembered at a time
+     */
+    public int getDeduplicationCapacity() {
+        return deduplicationCapacity;
+    }
+
+    /**
+     * @return true if a Bloom filter is checked before the remembered deduplication keys
+     */
+    public boolean isDeduplicationBloomFilter() {
+        return deduplicationBloomFilter;
+    }
+
+    /**
+     * @return time in milliseconds the service waits for its in-flight messages when it is stopped
+     */
+    public long getDrainTimeout() {
+        return drainTimeout;
+    }
+
+    /**
+     * @return delay in milliseconds before the first reconnection attempt after the broker is lost
+     */
+    public long getRetryInterval() {
+        return retryInterval;
+    }
+
+    /**
+     * @return upper bound in milliseconds of the delay between the reconnection attempts
+     */
+    public long getMaxReconnectInterval() {
+        return maxReconnectInterval;
+    }
+
+    /**
+     * @return true if the service sets its maximum reconnection interval, which opts into the paced reconnections
+     */
+    public boolean isReconnectionConfigured() {
+        return reconnectionConfigured;
+    }
+
+    /**
+     * @return true if the consumers of the service are run by the receive loops of the
+     * {@link JMSPollingServerConnector}, instead of the transport level message listeners
+     */
+    public boolean isConnectorOwnedConsumers() {
+        // Deferred completions, a varying number of consumers, shared connections and paced reconnections need the
+        // receive loops to be owned by the connector
+        return pollingConsumer || isGroupedCompletion() || isConsumerScaling() || connectionShared
+                || reconnectionConfigured;
+    }
+
+    /**
+     * @return true if the service consumes a topic
+     */
+    public boolean isTopic() {
+        return topic;
+    }
+
+    /**
+     * @return true if the consumers share a connection with the other services of the same broker configuration
+     */
+    public boolean isConnectionShared() {
+        return connectionShared;
+    }
+
+    /**
+     * @return true if the messages are pulled by receive loops owned by the connector
+     */
+    public boolean isPollingConsumer() {
+        return pollingConsumer;
+    }
+
+    /**
+     * @return maximum number of messages a consumer takes per wake-up, 1 unless the consumers poll
+     */
+    public int getPollBatchSize() {
+        return pollBatchSize;
+    }
+
+    /**
+     * @return time in milliseconds a receive loop waits for a message before it wakes up
+     */
+    public long getPollTimeout() {
+        return pollTimeout;
+    }
+
+    /**
+     * @return true if the invocations of the service are scheduled by the {@link JMSServiceScheduler}
+     */
+    public boolean isScheduled() {
+        return maxConcurrentInvocations > 0 || schedulingWeight > 0;
+    }
+
+    /**
+     * @return permit budget of the service, or 0 if it is bound only by the budget of the process
+     */
+    public int getMaxConcurrentInvocations() {
+        return maxConcurrentInvocations;
+    }
+
+    /**
+     * @return number of consecutive invocation slots the service takes per scheduling round
+     */
+    public int getSchedulingWeight() {
+        return schedulingWeight > 0 ? schedulingWeight : 1;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.wso2.carbon.transport.jms.contract.JMSListener;
+
+/**
+ * {@code JMSServiceListener} is a {@link JMSListener} which dispatches the messages of a Ballerina service and takes
+ * part in stopping the service.
+ *
+ * @since 0.95
+ */
+public interface JMSServiceListener extends JMSListener {
+
+    /**
+     * Stop accepting messages and wait until the messages already dispatched to the service complete.
+     *
+     * @param timeout maximum time to wait in milliseconds
+     * @return number of messages still in flight, 0 if the service is drained
+     */
+    int drain(long timeout);
+
+    /**
+     * Release the resources of the listener once its server connector is stopped.
+     */
+    void close();
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * {@code JMSServiceScheduler} shares a process wide budget of resource invocations among the JMS services which
+ * opt into scheduling, so that a flooded service cannot take every invocation slot from the others.
+ * <p>
+ * Every scheduled service gets a {@link ServiceQueue}, which acts as its bulkhead: the service never has more
+ * invocations in flight than its own permit budget, and its consumers are held once its queue is full, so the
+ * backlog of a flooded service stays at its broker. The free slots of the process wide budget are handed out across
+ * the services with a backlog by deficit round robin, where a service takes as many consecutive slots per round as
+ * its weight. A latency sensitive service with a higher weight therefore keeps its share of the slots during a
+ * burst on a bulk service.
+ * <p>
+ * Scheduled dispatches run on the {@link JMSDispatchExecutor}, and hold their slot until the completion hook they
+ * receive is run, i.e. until the resource invocation is over.
+ *
+ * @since 0.95
+ */
+public class JMSServiceScheduler {
+    private static final Logger log = LoggerFactory.getLogger(JMSServiceScheduler.class);
+
+    /**
+     * System property to override the number of scheduled resource invocations in flight in the process.
+     */
+    public static final String MAX_CONCURRENT_INVOCATIONS_PROPERTY = "ballerina.jms.scheduler.maxConcurrentInvocations";
+
+    private static final JMSServiceScheduler instance = new JMSServiceScheduler(Integer.getInteger(
+            MAX_CONCURRENT_INVOCATIONS_PROPERTY, Runtime.getRuntime().availableProcessors() * 16));
+
+    private final int maxConcurrentInvocations;
+    private final List<ServiceQueue> backloggedQueues = new ArrayList<>();
+    private int nextQueue;
+    private int runningCount;
+
+    JMSServiceScheduler(int maxConcurrentInvocations) {
+        this.maxConcurrentInvocations = Math.max(maxConcurrentInvocations, 1);
+    }
+
+    public static JMSServiceScheduler getInstance() {
+        return instance;
+    }
+
+    /**
+     * Create the queue of a service.
+     *
+     * @param serviceId                name of the service, used for logging
+     * @param weight                   number of consecutive slots the service takes per round
+     * @param maxConcurrentInvocations permit budget of the service, or 0 to be bound only by the process wide budget
+     * @return queue the dispatches of the service are to be submitted to
+     */
+    public ServiceQueue createQueue(String serviceId, int weight, int maxConcurrentInvocations) {
+        int permits = maxConcurrentInvocations > 0
+                ? Math.min(maxConcurrentInvocations, this.maxConcurrentInvocations) : this.maxConcurrentInvocations;
+        return new ServiceQueue(serviceId, Math.max(weight, 1), permits);
+    }
+
+    /**
+     * Pick the dispatches to be started in the free slots, visiting the services with a backlog in turn. Must be
+     * called while holding the lock of the scheduler.
+     */
+    private List<Runnable> takeStartableDispatches() {
+        List<Runnable> startableDispatches = null;
+        int skippedQueues = 0;
+        while (runningCount < maxConcurrentInvocations && skippedQueues < backloggedQueues.size()) {
+            if (nextQueue >= backloggedQueues.size()) {
+                nextQueue = 0;
+            }
+            ServiceQueue queue = backloggedQueues.get(nextQueue);
+            if (queue.pendingDispatches.isEmpty()) {
+                queue.deficit = 0;
+                queue.backlogged = false;
+                backloggedQueues.remove(nextQueue);
+                continue;
+            }
+            if (queue.runningCount >= queue.permits) {
+                // The service is at its own budget, its turn passes on without keeping the rest of its round
+                queue.deficit = 0;
+                nextQueue++;
+                skippedQueues++;
+                continue;
+            }
+            if (queue.deficit == 0) {
+                queue.deficit = queue.weight;
+            }
+            queue.deficit--;
+            queue.runningCount++;
+            runningCount++;
+            if (startableDispatches == null) {
+                startableDispatches = new ArrayList<>();
+            }
+            startableDispatches.add(queue.start(queue.pendingDispatches.poll()));
+            skippedQueues = 0;
+            if (queue.deficit == 0) {
+                nextQueue++;
+            }
+        }
+        if (startableDispatches != null) {
+            // The consumers held on a full queue may go on
+            notifyAll();
+        }
+        return startableDispatches;
+    }
+
+    private static void startAll(List<Runnable> dispatches) {
+        if (dispatches != null) {
+            dispatches.forEach(JMSDispatchExecutor.getInstance()::execute);
+        }
+    }
+
+    /**
+     * Dispatch queue and permit budget of a scheduled service.
+     */
+    public class ServiceQueue {
+        private final String serviceId;
+        private final int weight;
+        private final int permits;
+        private final Queue<Consumer<Runnable>> pendingDispatches = new ArrayDeque<>();
+
+        private int runningCount;
+        private int deficit;
+        private boolean backlogged;
+
+        ServiceQueue(String serviceId, int weight, int permits) {
+            this.serviceId = serviceId;
+            this.weight = weight;
+            this.permits = permits;
+        }
+
+        /**
+         * Queue the given dispatch until the scheduler gives it a slot, waiting while the queue already holds as
+         * many dispatches as the permit budget of the service. The dispatch receives the hook it has to run once
+         * its resource invocation is over, which gives back the slot.
+         *
+         * @param dispatch dispatch of a message
+         * @throws InterruptedException if the consumer is interrupted while the queue is full
+         */
+        public void submit(Consumer<Runnable> dispatch) throws InterruptedException {
+            List<Runnable> startableDispatches;
+            synchronized (JMSServiceScheduler.this) {
+                while (pendingDispatches.size() >= permits) {
+                    JMSServiceScheduler.this.wait();
+                }
+                pendingDispatches.add(dispatch);
+                if (!backlogged) {
+                    backlogged = true;
+                    backloggedQueues.add(this);
+                }
+                startableDispatches = takeStartableDispatches();
+            }
+            startAll(startableDispatches);
+        }
+
+        /**
+         * @return number of resource invocations of the service in flight
+         */
+        public int getRunningCount() {
+            synchronized (JMSServiceScheduler.this) {
+                return runningCount;
+            }
+        }
+
+        private Runnable start(Consumer<Runnable> dispatch) {
+            AtomicBoolean completed = new AtomicBoolean();
+            Runnable completionHook = () -> {
+                if (completed.compareAndSet(false, true)) {
+                    complete();
+                }
+            };
+            return () -> {
+                try {
+                    dispatch.accept(completionHook);
+                } catch (RuntimeException e) {
+                    log.error("Error while dispatching a scheduled message of " + serviceId + ". " + e.getMessage(),
+                            e);
+                    completionHook.run();
+                }
+            };
+        }
+
+        private void complete() {
+            List<Runnable> startableDispatches;
+            synchronized (JMSServiceScheduler.this) {
+                runningCount--;
+                JMSServiceScheduler.this.runningCount--;
+                startableDispatches = takeStartableDispatches();
+            }
+            startAll(startableDispatches);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code JMSTimingWheel} is a hashed timing wheel which runs delayed tasks, e.g. the delayed redeliveries of failed
+ * messages, without holding a thread per pending task.
+ * <p>
+ * Scheduling a task only appends it to a queue. A single timer thread advances the wheel once per tick, moves the
+ * newly scheduled tasks into the bucket of their deadline and hands the expired tasks of the current bucket to the
+ * {@link JMSDispatchExecutor}. Tasks fire at most one tick after their deadline.
+ *
+ * @since 0.95
+ */
+public class JMSTimingWheel {
+    private static final Logger log = LoggerFactory.getLogger(JMSTimingWheel.class);
+
+    /**
+     * System property to override the tick duration of the wheel in milliseconds.
+     */
+    public static final String TICK_DURATION_PROPERTY = "ballerina.jms.timingWheel.tickDuration";
+
+    private static final long DEFAULT_TICK_DURATION = 50;
+    private static final int WHEEL_SIZE = 512;
+
+    private static final JMSTimingWheel instance = new JMSTimingWheel(
+            Long.getLong(TICK_DURATION_PROPERTY, DEFAULT_TICK_DURATION), WHEEL_SIZE);
+
+    private final long tickNanos;
+    private final int wheelSize;
+    private final Queue<Timeout>[] buckets;
+    private final Queue<Timeout> scheduledTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile long startTime;
+
+    /**
+     * @param tickDuration duration of a tick in milliseconds
+     * @param wheelSize    number of buckets, a power of two
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    JMSTimingWheel(long tickDuration, int wheelSize) {
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tickDuration);
+        this.wheelSize = wheelSize;
+        buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    public static JMSTimingWheel getInstance() {
+        return instance;
+    }
+
+    /**
+     * Schedule the given task to run once the delay elapses.
+     *
+     * @param task  task to be run on the {@link JMSDispatchExecutor}
+     * @param delay delay in milliseconds
+     * @return handle to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay) {
+        start();
+        Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0)));
+        scheduledTimeouts.add(timeout);
+        return timeout;
+    }
+
+    private void start() {
+        if (started.compareAndSet(false, true)) {
+            startTime = System.nanoTime();
+            Thread timerThread = new Thread(this::run, "jms-timing-wheel");
+            timerThread.setDaemon(true);
+            timerThread.start();
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+        while (true) {
+            long sleepNanos = startTime + (tick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    log.warn("The jms timing wheel was interrupted, the delayed tasks are no longer run");
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            transferScheduledTimeouts(tick);
+            expire(buckets[(int) (tick & (wheelSize - 1))]);
+            tick++;
+        }
+    }
+
+    private void transferScheduledTimeouts(long currentTick) {
+        Timeout timeout;
+        while ((timeout = scheduledTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long deadlineTick = Math.max((timeout.deadline - startTime + tickNanos - 1) / tickNanos, currentTick);
+            timeout.remainingRounds = (deadlineTick - currentTick) / wheelSize;
+            buckets[(int) (deadlineTick & (wheelSize - 1))].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public static class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return true if the task was cancelled, false if it has already run or started running
+         */
+        public boolean cancel() {
+            return state.compareAndSet(PENDING, CANCELLED);
+        }
+
+        boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        private void expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                try {
+                    JMSDispatchExecutor.getInstance().execute(task);
+                } catch (RuntimeException e) {
+                    log.error("Error while running a delayed jms task. " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+}
@@ -37,10 +37,14 @@ public class JMSTransactionContext implements BallerinaTransactionContext {
     private static final Logger log = LoggerFactory.getLogger(JMSConnectorFutureListener.class);
     private SessionWrapper sessionWrapper;
     private JMSClientConnector clientConnector;
+    /** Key of the shared client connector in the {@link JMSClientConnectorRegistry}, released when done. */
+    private String registryKey;
 
-    public JMSTransactionContext(SessionWrapper sessionWrapper, JMSClientConnector clientConnector) {
+    public JMSTransactionContext(SessionWrapper sessionWrapper, JMSClientConnector clientConnector,
+            String registryKey) {
         this.sessionWrapper = sessionWrapper;
         this.clientConnector = clientConnector;
+        this.registryKey = registryKey;
     }
 
     public SessionWrapper getSessionWrapper() {
@@ -76,11 +80,15 @@ public class JMSTransactionContext implements BallerinaTransactionContext {
     @Override
     public void done() {
         if (sessionWrapper != null) {
+            SessionWrapper releasedSessionWrapper = sessionWrapper;
+            // Cleared first, so that a failed release does not release the connector again on a second call
+            sessionWrapper = null;
             try {
-                clientConnector.releaseSession(sessionWrapper);
-                sessionWrapper = null;
+                clientConnector.releaseSession(releasedSessionWrapper);
             } catch (JMSConnectorException e) {
                 log.error("jms session release failed: " + e.getLocalizedMessage(), e);
+            } finally {
+                JMSClientConnectorRegistry.getInstance().release(registryKey);
             }
         }
     }
@@ -18,20 +18,23 @@ package org.ballerinalang.net.jms;
 
 import org.ballerinalang.connector.api.AnnAttrValue;
 import org.ballerinalang.connector.api.Annotation;
-import org.ballerinalang.connector.api.BallerinaConnectorException;
-import org.ballerinalang.connector.api.Resource;
-import org.ballerinalang.connector.api.Service;
 import org.ballerinalang.model.values.BMap;
 import org.ballerinalang.model.values.BString;
 import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.wso2.carbon.kernel.utils.StringUtils;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.sender.wrappers.SessionWrapper;
 import org.wso2.carbon.transport.jms.utils.JMSConstants;
 
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import javax.jms.Destination;
+import javax.jms.JMSException;
 import javax.jms.Message;
+import javax.jms.TopicPublisher;
 
 /**
  * Utility class for JMS related common operations.
@@ -220,21 +223,56 @@ public class JMSUtils {
     }
 
     /**
-     * Extract JMS Resource from the Ballerina Service
+     * Send the message through the given client connector. When client caching is enabled the message is sent with a
+     * pooled session, resolving the destination through the {@link JMSDestinationCache}.
      *
-     * @param service Service instance
-     * @return extracted resource
-     * @throws BallerinaConnectorException if there is no Resource or more than one Resource inside the service
+     * @param jmsClientConnector shared client connector
+     * @param clientConfig       resolved client configuration of the connector
+     * @param jmsMessage         message to be sent
+     * @param destinationName    name of the destination
+     * @throws JMSConnectorException if the message cannot be sent
      */
-    public static Resource extractJMSResource(Service service) throws BallerinaConnectorException {
-        Resource[] resources = service.getResources();
-        if (resources.length == 0) {
-            throw new BallerinaException("No resources found to handle the JMS message in " + service.getName());
+    public static void sendMessage(JMSClientConnector jmsClientConnector, JMSClientConfig clientConfig,
+            Message jmsMessage, String destinationName) throws JMSConnectorException {
+        if (!clientConfig.isClientCaching()) {
+            jmsClientConnector.send(jmsMessage, destinationName);
+            return;
         }
-        if (resources.length > 1) {
-            throw new BallerinaException("More than one resources found in JMS service " + service.getName()
-                    + ".JMS Service should only have one resource");
+        SessionWrapper sessionWrapper = jmsClientConnector.acquireSession();
+        try {
+            sendMessage(sessionWrapper, clientConfig, jmsMessage, destinationName);
+        } finally {
+            jmsClientConnector.releaseSession(sessionWrapper);
+        }
+    }
+
+    /**
+     * Send the message with the producer of the given session, resolving the destination through the
+     * {@link JMSDestinationCache}. The session is neither committed nor released.
+     *
+     * @param sessionWrapper  session to send the message with
+     * @param clientConfig    resolved client configuration of the connector which owns the session
+     * @param jmsMessage      message to be sent
+     * @param destinationName name of the destination
+     * @throws JMSConnectorException if the message cannot be sent
+     */
+    public static void sendMessage(SessionWrapper sessionWrapper, JMSClientConfig clientConfig, Message jmsMessage,
+            String destinationName) throws JMSConnectorException {
+        JMSDestinationCache destinationCache = JMSDestinationCache.getInstance();
+        Destination destination = destinationCache.getDestination(clientConfig.getRegistryKey(),
+                clientConfig.getProperties(), sessionWrapper.getSession(), destinationName);
+        try {
+            // Same delivery parameters and producer type as the transport level send
+            if (clientConfig.isTopicPublishing()) {
+                ((TopicPublisher) sessionWrapper.getMessageProducer()).send(destination, jmsMessage,
+                        jmsMessage.getJMSDeliveryMode(), jmsMessage.getJMSPriority(), jmsMessage.getJMSExpiration());
+            } else {
+                sessionWrapper.getMessageProducer().send(destination, jmsMessage, jmsMessage.getJMSDeliveryMode(),
+                        jmsMessage.getJMSPriority(), jmsMessage.getJMSExpiration());
+            }
+        } catch (JMSException e) {
+            destinationCache.invalidate(clientConfig.getRegistryKey());
+            throw new JMSConnectorException("JMS Send Failed with [" + e.getMessage() + " ]", e);
         }
-        return resources[0];
     }
 }
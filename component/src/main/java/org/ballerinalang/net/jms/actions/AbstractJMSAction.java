@@ -16,10 +16,25 @@
 
 package org.ballerinalang.net.jms.actions;
 
+import org.ballerinalang.bre.BallerinaTransactionContext;
+import org.ballerinalang.bre.BallerinaTransactionManager;
+import org.ballerinalang.bre.Context;
 import org.ballerinalang.connector.api.AbstractNativeAction;
 import org.ballerinalang.model.values.BConnector;
 import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.net.jms.JMSClientConfig;
+import org.ballerinalang.net.jms.JMSClientConnectorRegistry;
+import org.ballerinalang.net.jms.JMSTransactionContext;
+import org.ballerinalang.util.DistributedTxManagerProvider;
 import org.ballerinalang.util.exceptions.BallerinaException;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.sender.wrappers.SessionWrapper;
+
+import java.util.UUID;
+import javax.transaction.TransactionManager;
+
+import static org.ballerinalang.net.jms.Constants.EMPTY_CONNECTOR_ID;
 
 /**
  * {@code AbstractJMSAction} is the base class for all JMS Connector Actions.
@@ -36,4 +51,69 @@ public abstract class AbstractJMSAction extends AbstractNativeAction {
         }
     }
 
+    /**
+     * Get the unique key of the connector instance, generating it if its not already generated.
+     *
+     * @param bConnector connector instance
+     * @return connector key
+     */
+    protected String getConnectorKey(BConnector bConnector) {
+        if (EMPTY_CONNECTOR_ID.equals(bConnector.getStringField(0))) {
+            String connectorKey = UUID.randomUUID().toString();
+            bConnector.setStringField(0, connectorKey);
+            return connectorKey;
+        }
+        return bConnector.getStringField(0);
+    }
+
+    /**
+     * Get the session bound to the current Ballerina transaction for the given connector, registering a new
+     * {@link JMSTransactionContext} if this is the first transacted action of the connector within the transaction.
+     *
+     * @param context            ballerina context
+     * @param connectorKey       key of the connector instance
+     * @param jmsClientConnector shared client connector
+     * @param clientConfig       resolved client configuration
+     * @return session of the transaction
+     * @throws JMSConnectorException if a session cannot be acquired
+     */
+    protected SessionWrapper getTransactionSession(Context context, String connectorKey,
+            JMSClientConnector jmsClientConnector, JMSClientConfig clientConfig) throws JMSConnectorException {
+        BallerinaTransactionManager ballerinaTxManager = context.getBallerinaTransactionManager();
+        BallerinaTransactionContext txContext = ballerinaTxManager.getTransactionContext(connectorKey);
+        // if transaction initialization has not yet been done
+        // (if this is the first transacted action happens from this particular connector with this
+        // transaction block)
+        if (txContext != null) {
+            return ((JMSTransactionContext) txContext).getSessionWrapper();
+        }
+        SessionWrapper sessionWrapper = jmsClientConnector.acquireSession();
+        // The transaction context keeps its own reference until the transaction is done
+        JMSClientConnectorRegistry.getInstance()
+                .acquire(clientConfig.getRegistryKey(), clientConfig.getProperties());
+        txContext = new JMSTransactionContext(sessionWrapper, jmsClientConnector, clientConfig.getRegistryKey());
+        //Handle XA initialization
+        if (txContext.getXAResource() != null) {
+            try {
+                initializeXATransaction(ballerinaTxManager);
+            } catch (RuntimeException e) {
+                // The context is not registered yet, hence the transaction would never release its resources
+                txContext.done();
+                throw e;
+            }
+        }
+        ballerinaTxManager.registerTransactionContext(connectorKey, txContext);
+        return sessionWrapper;
+    }
+
+    private void initializeXATransaction(BallerinaTransactionManager ballerinaTxManager) {
+        /* Atomikos transaction manager initialize only distributed transaction is present.*/
+        if (!ballerinaTxManager.hasXATransactionManager()) {
+            TransactionManager transactionManager = DistributedTxManagerProvider.getInstance().getTransactionManager();
+            ballerinaTxManager.setXATransactionManager(transactionManager);
+        }
+        if (!ballerinaTxManager.isInXATransaction()) {
+            ballerinaTxManager.beginXATransaction();
+        }
+    }
 }
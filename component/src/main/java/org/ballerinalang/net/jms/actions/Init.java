@@ -22,12 +22,16 @@ import org.ballerinalang.bre.Context;
 import org.ballerinalang.connector.api.AbstractNativeAction;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BConnector;
+import org.ballerinalang.model.values.BStruct;
 import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
 import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.Attribute;
 import org.ballerinalang.natives.annotations.BallerinaAction;
 import org.ballerinalang.natives.annotations.BallerinaAnnotation;
 import org.ballerinalang.net.jms.Constants;
+import org.ballerinalang.net.jms.JMSClientConfig;
+import org.ballerinalang.net.jms.JMSClientWarmUp;
 import org.osgi.service.component.annotations.Component;
 
 /**
@@ -58,6 +62,11 @@ public class Init extends AbstractJMSAction {
 
     @Override
     public ConnectorFuture execute(Context context) {
+        BConnector bConnector = (BConnector) getRefArgument(context, 0);
+        if (bConnector != null && bConnector.getRefField(0) instanceof BStruct) {
+            // Pool creation is done in the background, the readiness can be checked with the isReady action
+            JMSClientWarmUp.getInstance().start(JMSClientConfig.fromStruct((BStruct) bConnector.getRefField(0)));
+        }
         ClientConnectorFuture future = new ClientConnectorFuture();
         future.notifySuccess();
         return future;
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BBoolean;
+import org.ballerinalang.model.values.BConnector;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.Attribute;
+import org.ballerinalang.natives.annotations.BallerinaAction;
+import org.ballerinalang.natives.annotations.BallerinaAnnotation;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.jms.Constants;
+import org.ballerinalang.net.jms.JMSClientConfig;
+import org.ballerinalang.net.jms.JMSClientWarmUp;
+
+/**
+ * {@code IsReady} is the readiness check action of the JMS Connector. It reports whether the background warm-up
+ * started by the {@link Init} action is over.
+ *
+ * @since 0.95
+ */
+@BallerinaAction(packageName = "ballerina.net.jms",
+                 actionName = "isReady",
+                 connectorName = Constants.CONNECTOR_NAME,
+                 args = {
+                         @Argument(name = "jmsClientConnector",
+                                   type = TypeKind.CONNECTOR)
+                 },
+                 returnType = { @ReturnType(type = TypeKind.BOOLEAN) },
+                 connectorArgs = {
+                         @Argument(name = "properties",
+                                   type = TypeKind.STRUCT)
+                 })
+@BallerinaAnnotation(annotationName = "Description",
+                     attributes = {
+                             @Attribute(name = "value",
+                                        value = "Check whether the connections and sessions of the connector are "
+                                                + "created")
+                     })
+public class IsReady extends AbstractJMSAction {
+
+    @Override
+    public ConnectorFuture execute(Context context) {
+        BConnector bConnector = (BConnector) getRefArgument(context, 0);
+        validateParams(bConnector);
+
+        JMSClientConfig clientConfig = JMSClientConfig.fromStruct((BStruct) bConnector.getRefField(0));
+        ClientConnectorFuture future = new ClientConnectorFuture();
+        future.notifyReply(new BBoolean(JMSClientWarmUp.getInstance().isReady(clientConfig)));
+        return future;
+    }
+
+    @Override
+    public boolean isNonBlockingAction() {
+        return false;
+    }
+}
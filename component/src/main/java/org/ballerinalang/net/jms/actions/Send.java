@@ -16,8 +16,6 @@
 
 package org.ballerinalang.net.jms.actions;
 
-import org.ballerinalang.bre.BallerinaTransactionContext;
-import org.ballerinalang.bre.BallerinaTransactionManager;
 import org.ballerinalang.bre.Context;
 import org.ballerinalang.connector.api.ConnectorFuture;
 import org.ballerinalang.model.types.TypeKind;
@@ -30,24 +28,18 @@ import org.ballerinalang.natives.annotations.BallerinaAction;
 import org.ballerinalang.natives.annotations.BallerinaAnnotation;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.jms.Constants;
-import org.ballerinalang.net.jms.JMSTransactionContext;
+import org.ballerinalang.net.jms.JMSClientConfig;
+import org.ballerinalang.net.jms.JMSClientConnectorRegistry;
+import org.ballerinalang.net.jms.JMSSendBatcher;
 import org.ballerinalang.net.jms.JMSUtils;
-import org.ballerinalang.util.DistributedTxManagerProvider;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
 import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
-import org.wso2.carbon.transport.jms.impl.JMSConnectorFactoryImpl;
 import org.wso2.carbon.transport.jms.sender.wrappers.SessionWrapper;
-import org.wso2.carbon.transport.jms.utils.JMSConstants;
 
-import java.util.Map;
-import java.util.UUID;
 import javax.jms.Message;
-import javax.transaction.TransactionManager;
-
-import static org.ballerinalang.net.jms.Constants.EMPTY_CONNECTOR_ID;
 
 /**
  * {@code Post} is the send action implementation of the JMS Connector.
@@ -111,52 +103,36 @@ public class Send extends AbstractJMSAction {
         // Get the map of properties.
         BStruct  connectorConfig = ((BStruct) bConnector.getRefField(0));
 
-        Map<String, String> propertyMap = JMSUtils.preProcessJmsConfig(connectorConfig);
+        JMSClientConfig clientConfig = JMSClientConfig.fromStruct(connectorConfig);
 
-        // Generate connector the key, if its not already generated
-        String connectorKey;
-        if (EMPTY_CONNECTOR_ID.equals(bConnector.getStringField(0))) {
-            connectorKey = UUID.randomUUID().toString();
-            bConnector.setStringField(0, connectorKey);
-        } else {
-            connectorKey = bConnector.getStringField(0);
-        }
+        String connectorKey = getConnectorKey(bConnector);
 
-        propertyMap.put(JMSConstants.PARAM_DESTINATION_NAME, destination);
+        boolean isTransacted = clientConfig.isTransacted() && context.isInTransaction();
 
-        boolean isTransacted = Boolean.FALSE;
-        if (propertyMap.get(JMSConstants.PARAM_ACK_MODE) != null) {
-            isTransacted = (JMSConstants.SESSION_TRANSACTED_MODE.equals(propertyMap.get(JMSConstants.PARAM_ACK_MODE))
-                    || JMSConstants.XA_TRANSACTED_MODE.equals(propertyMap.get(JMSConstants.PARAM_ACK_MODE))) && context
-                    .isInTransaction();
+        if (!isTransacted && clientConfig.isBatchingEnabled()) {
+            // The future is completed once the batch containing the message is committed
+            ClientConnectorFuture future = new ClientConnectorFuture();
+            JMSSendBatcher.getInstance().send(clientConfig, jmsMessage, destination, future);
+            return future;
         }
 
+        JMSClientConnectorRegistry registry = JMSClientConnectorRegistry.getInstance();
+        String registryKey = clientConfig.getRegistryKey();
         try {
-            JMSClientConnector jmsClientConnector = new JMSConnectorFactoryImpl().createClientConnector(propertyMap);
-            if (log.isDebugEnabled()) {
-                log.debug("Sending JMS Message to " + propertyMap.get(JMSConstants.PARAM_DESTINATION_NAME));
-            }
-            if (!isTransacted) {
-                jmsClientConnector.send(jmsMessage, destination);
-            } else {
-                SessionWrapper sessionWrapper;
-                BallerinaTransactionManager ballerinaTxManager = context.getBallerinaTransactionManager();
-                BallerinaTransactionContext txContext = ballerinaTxManager.getTransactionContext(connectorKey);
-                // if transaction initialization has not yet been done
-                // (if this is the first transacted action happens from this particular connector with this
-                // transaction block)
-                if (txContext == null) {
-                    sessionWrapper = jmsClientConnector.acquireSession();
-                    txContext = new JMSTransactionContext(sessionWrapper, jmsClientConnector);
-                    //Handle XA initialization
-                    if (txContext.getXAResource() != null) {
-                        initializeXATransaction(ballerinaTxManager);
-                    }
-                    ballerinaTxManager.registerTransactionContext(connectorKey, txContext);
+            JMSClientConnector jmsClientConnector = registry.acquire(registryKey, clientConfig.getProperties());
+            try {
+                if (log.isDebugEnabled()) {
+                    log.debug("Sending JMS Message to " + destination);
+                }
+                if (!isTransacted) {
+                    JMSUtils.sendMessage(jmsClientConnector, clientConfig, jmsMessage, destination);
                 } else {
-                    sessionWrapper = ((JMSTransactionContext) txContext).getSessionWrapper();
+                    SessionWrapper sessionWrapper = getTransactionSession(context, connectorKey, jmsClientConnector,
+                            clientConfig);
+                    JMSUtils.sendMessage(sessionWrapper, clientConfig, jmsMessage, destination);
                 }
-                jmsClientConnector.sendTransactedMessage(jmsMessage, destination, sessionWrapper);
+            } finally {
+                registry.release(registryKey);
             }
         } catch (JMSConnectorException e) {
             throw new BallerinaException("Failed to send message. " + e.getMessage(), e, context);
@@ -165,15 +141,4 @@ public class Send extends AbstractJMSAction {
         future.notifySuccess();
         return future;
     }
-
-    private void initializeXATransaction(BallerinaTransactionManager ballerinaTxManager) {
-        /* Atomikos transaction manager initialize only distributed transaction is present.*/
-        if (!ballerinaTxManager.hasXATransactionManager()) {
-            TransactionManager transactionManager = DistributedTxManagerProvider.getInstance().getTransactionManager();
-            ballerinaTxManager.setXATransactionManager(transactionManager);
-        }
-        if (!ballerinaTxManager.isInXATransaction()) {
-            ballerinaTxManager.beginXATransaction();
-        }
-    }
 }
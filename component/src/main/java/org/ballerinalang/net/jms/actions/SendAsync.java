@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BConnector;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.Attribute;
+import org.ballerinalang.natives.annotations.BallerinaAction;
+import org.ballerinalang.natives.annotations.BallerinaAnnotation;
+import org.ballerinalang.net.jms.Constants;
+import org.ballerinalang.net.jms.JMSAsyncSender;
+import org.ballerinalang.net.jms.JMSClientConfig;
+import org.ballerinalang.net.jms.JMSClientConnectorRegistry;
+import org.ballerinalang.net.jms.JMSUtils;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.sender.wrappers.SessionWrapper;
+
+import javax.jms.Message;
+
+/**
+ * {@code SendAsync} is the asynchronous send action implementation of the JMS Connector. The action returns as soon
+ * as the message is handed over to the {@link JMSAsyncSender} and its future is completed once the send is done.
+ *
+ * @since 0.95
+ */
+@BallerinaAction(packageName = "ballerina.net.jms",
+                 actionName = "sendAsync",
+                 connectorName = Constants.CONNECTOR_NAME,
+                 args = {
+                         @Argument(name = "jmsClientConnector",
+                                   type = TypeKind.CONNECTOR),
+                         @Argument(name = "destinationName",
+                                   type = TypeKind.STRING),
+                         @Argument(name = "m",
+                                   type = TypeKind.STRUCT,
+                                   structType = "JMSMessage",
+                                   structPackage = "ballerina.net.jms")
+                 },
+                 connectorArgs = {
+                         @Argument(name = "properties",
+                                   type = TypeKind.STRUCT)
+                 })
+@BallerinaAnnotation(annotationName = "Description",
+                     attributes = {
+                             @Attribute(name = "value",
+                                        value = "Asynchronous SEND action implementation of the JMS Connector")
+                     })
+@BallerinaAnnotation(annotationName = "Param",
+                     attributes = {
+                             @Attribute(name = "destinationName",
+                                        value = "Destination Name")
+                     })
+@BallerinaAnnotation(annotationName = "Param",
+                     attributes = {
+                             @Attribute(name = "message",
+                                        value = "Message")
+                     })
+public class SendAsync extends AbstractJMSAction {
+    private static final Logger log = LoggerFactory.getLogger(SendAsync.class);
+
+    @Override
+    public ConnectorFuture execute(Context context) {
+
+        // Extract argument values
+        BConnector bConnector = (BConnector) getRefArgument(context, 0);
+        BStruct messageStruct = ((BStruct) getRefArgument(context, 1));
+        String destination = getStringArgument(context, 0);
+
+        Message jmsMessage = JMSUtils.getJMSMessage(messageStruct);
+
+        validateParams(bConnector);
+
+        JMSClientConfig clientConfig = JMSClientConfig.fromStruct((BStruct) bConnector.getRefField(0));
+        ClientConnectorFuture future = new ClientConnectorFuture();
+
+        if (clientConfig.isTransacted() && context.isInTransaction()) {
+            // The session of the transaction is not thread safe, hence transacted sends are done by the caller
+            sendTransacted(context, bConnector, clientConfig, jmsMessage, destination);
+            future.notifySuccess();
+            return future;
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Sending JMS Message asynchronously to " + destination);
+        }
+        try {
+            JMSAsyncSender.getInstance().send(clientConfig, jmsMessage, destination, future);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BallerinaException("Interrupted while waiting to send the message", e, context);
+        }
+        return future;
+    }
+
+    private void sendTransacted(Context context, BConnector bConnector, JMSClientConfig clientConfig,
+            Message jmsMessage, String destination) {
+        JMSClientConnectorRegistry registry = JMSClientConnectorRegistry.getInstance();
+        try {
+            JMSClientConnector jmsClientConnector = registry.acquire(clientConfig.getRegistryKey(),
+                    clientConfig.getProperties());
+            try {
+                SessionWrapper sessionWrapper = getTransactionSession(context, getConnectorKey(bConnector),
+                        jmsClientConnector, clientConfig);
+                JMSUtils.sendMessage(sessionWrapper, clientConfig, jmsMessage, destination);
+            } finally {
+                registry.release(clientConfig.getRegistryKey());
+            }
+        } catch (JMSConnectorException e) {
+            throw new BallerinaException("Failed to send message. " + e.getMessage(), e, context);
+        }
+    }
+}
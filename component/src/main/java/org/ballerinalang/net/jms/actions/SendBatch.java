@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.actions;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BConnector;
+import org.ballerinalang.model.values.BRefValueArray;
+import org.ballerinalang.model.values.BStringArray;
+import org.ballerinalang.model.values.BStruct;
+import org.ballerinalang.nativeimpl.actions.ClientConnectorFuture;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.Attribute;
+import org.ballerinalang.natives.annotations.BallerinaAction;
+import org.ballerinalang.natives.annotations.BallerinaAnnotation;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.jms.Constants;
+import org.ballerinalang.net.jms.JMSClientConfig;
+import org.ballerinalang.net.jms.JMSClientConnectorRegistry;
+import org.ballerinalang.net.jms.JMSUtils;
+import org.ballerinalang.util.exceptions.BallerinaException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
+import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
+import org.wso2.carbon.transport.jms.sender.wrappers.SessionWrapper;
+
+import java.util.Arrays;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+
+/**
+ * {@code SendBatch} is the batch send action implementation of the JMS Connector. All the messages of the batch are
+ * written with a single session (and its producer) of the connector.
+ *
+ * @since 0.95
+ */
+@BallerinaAction(packageName = "ballerina.net.jms",
+                 actionName = "sendBatch",
+                 connectorName = Constants.CONNECTOR_NAME,
+                 args = {
+                         @Argument(name = "jmsClientConnector",
+                                   type = TypeKind.CONNECTOR),
+                         @Argument(name = "destinationName",
+                                   type = TypeKind.STRING),
+                         @Argument(name = "messages",
+                                   type = TypeKind.ARRAY,
+                                   elementType = TypeKind.STRUCT,
+                                   structType = "JMSMessage",
+                                   structPackage = "ballerina.net.jms"),
+                         @Argument(name = "transacted",
+                                   type = TypeKind.BOOLEAN)
+                 },
+                 returnType = { @ReturnType(type = TypeKind.ARRAY, elementType = TypeKind.STRING) },
+                 connectorArgs = {
+                         @Argument(name = "properties",
+                                   type = TypeKind.STRUCT)
+                 })
+@BallerinaAnnotation(annotationName = "Description",
+                     attributes = {
+                             @Attribute(name = "value",
+                                        value = "Batch SEND action implementation of the JMS Connector")
+                     })
+@BallerinaAnnotation(annotationName = "Param",
+                     attributes = {
+                             @Attribute(name = "destinationName",
+                                        value = "Destination Name")
+                     })
+@BallerinaAnnotation(annotationName = "Param",
+                     attributes = {
+                             @Attribute(name = "messages",
+                                        value = "Messages to be sent")
+                     })
+@BallerinaAnnotation(annotationName = "Param",
+                     attributes = {
+                             @Attribute(name = "transacted",
+                                        value = "Commit the batch as a single local transaction")
+                     })
+public class SendBatch extends AbstractJMSAction {
+    private static final Logger log = LoggerFactory.getLogger(SendBatch.class);
+
+    @Override
+    public ConnectorFuture execute(Context context) {
+
+        // Extract argument values
+        BConnector bConnector = (BConnector) getRefArgument(context, 0);
+        BRefValueArray messages = (BRefValueArray) getRefArgument(context, 1);
+        String destination = getStringArgument(context, 0);
+        boolean transactedBatch = getBooleanArgument(context, 0);
+
+        validateParams(bConnector);
+
+        JMSClientConfig clientConfig = JMSClientConfig.fromStruct((BStruct) bConnector.getRefField(0));
+        String connectorKey = getConnectorKey(bConnector);
+
+        int batchSize = (int) messages.size();
+        Message[] jmsMessages = new Message[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            jmsMessages[i] = JMSUtils.getJMSMessage((BStruct) messages.get(i));
+        }
+
+        boolean[] delivered = new boolean[batchSize];
+        JMSClientConnectorRegistry registry = JMSClientConnectorRegistry.getInstance();
+        try {
+            JMSClientConnector jmsClientConnector = registry.acquire(clientConfig.getRegistryKey(),
+                    clientConfig.getProperties());
+            try {
+                if (log.isDebugEnabled()) {
+                    log.debug("Sending a batch of " + batchSize + " JMS Messages to " + destination);
+                }
+                if (clientConfig.isTransacted() && context.isInTransaction()) {
+                    // The batch participates in the surrounding Ballerina transaction, hence a failure aborts it
+                    SessionWrapper sessionWrapper = getTransactionSession(context, connectorKey, jmsClientConnector,
+                            clientConfig);
+                    for (int i = 0; i < batchSize; i++) {
+                        JMSUtils.sendMessage(sessionWrapper, clientConfig, jmsMessages[i], destination);
+                        delivered[i] = true;
+                    }
+                } else if (!clientConfig.isClientCaching()) {
+                    if (transactedBatch) {
+                        throw new BallerinaException("Transacted batches require client caching to be enabled",
+                                context);
+                    }
+                    for (int i = 0; i < batchSize; i++) {
+                        delivered[i] = sendMessage(jmsClientConnector, jmsMessages[i], destination);
+                    }
+                } else {
+                    sendWithSession(jmsClientConnector, clientConfig, destination, jmsMessages, delivered,
+                            transactedBatch, context);
+                }
+            } finally {
+                registry.release(clientConfig.getRegistryKey());
+            }
+        } catch (JMSConnectorException e) {
+            throw new BallerinaException("Failed to send message batch. " + e.getMessage(), e, context);
+        }
+
+        BStringArray deliveryStatus = new BStringArray();
+        for (int i = 0; i < batchSize; i++) {
+            deliveryStatus.add(i, delivered[i] ? Constants.JMS_MESSAGE_DELIVERY_SUCCESS
+                    : Constants.JMS_MESSAGE_DELIVERY_ERROR);
+        }
+        ClientConnectorFuture future = new ClientConnectorFuture();
+        future.notifyReply(deliveryStatus);
+        return future;
+    }
+
+    private void sendWithSession(JMSClientConnector jmsClientConnector, JMSClientConfig clientConfig,
+            String destination, Message[] jmsMessages, boolean[] delivered, boolean transactedBatch, Context context)
+            throws JMSConnectorException {
+        SessionWrapper sessionWrapper = jmsClientConnector.acquireSession();
+        try {
+            Session session = sessionWrapper.getSession();
+            if (transactedBatch && !session.getTransacted()) {
+                throw new BallerinaException("Transacted batches require the " + Constants.ALIAS_ACK_MODE
+                        + " of the connector to be SESSION_TRANSACTED", context);
+            }
+            sendAll(sessionWrapper, clientConfig, destination, jmsMessages, delivered, transactedBatch);
+            if (session.getTransacted()) {
+                // The session goes back to the pool, hence the messages it sent are never left uncommitted, even
+                // if the batch is not atomic
+                commit(session, delivered, transactedBatch);
+            }
+        } catch (JMSException e) {
+            throw new BallerinaException("Error while using the jms session. " + e.getMessage(), e, context);
+        } finally {
+            jmsClientConnector.releaseSession(sessionWrapper);
+        }
+    }
+
+    /**
+     * Send the messages one after the other using the given session. When the batch is atomic the remaining
+     * messages are not attempted after the first failure.
+     */
+    private void sendAll(SessionWrapper sessionWrapper, JMSClientConfig clientConfig, String destination,
+            Message[] jmsMessages, boolean[] delivered, boolean atomic) {
+        for (int i = 0; i < jmsMessages.length; i++) {
+            try {
+                JMSUtils.sendMessage(sessionWrapper, clientConfig, jmsMessages[i], destination);
+                delivered[i] = true;
+            } catch (JMSConnectorException e) {
+                log.error("Error while sending message " + i + " of the batch to " + destination + ". "
+                        + e.getMessage(), e);
+                delivered[i] = false;
+            }
+            if (atomic && !delivered[i]) {
+                Arrays.fill(delivered, false);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Commit the messages sent on a transacted session. An atomic batch is rolled back if any of its messages failed.
+     */
+    private void commit(Session session, boolean[] delivered, boolean atomic) throws JMSException {
+        if (atomic) {
+            for (boolean messageDelivered : delivered) {
+                if (!messageDelivered) {
+                    session.rollback();
+                    return;
+                }
+            }
+        }
+        try {
+            session.commit();
+        } catch (JMSException e) {
+            log.error("Error while committing the message batch. " + e.getMessage(), e);
+            Arrays.fill(delivered, false);
+        }
+    }
+
+    private boolean sendMessage(JMSClientConnector jmsClientConnector, Message jmsMessage, String destination) {
+        try {
+            return jmsClientConnector.send(jmsMessage, destination);
+        } catch (JMSConnectorException e) {
+            log.error("Error while sending a message of the batch to " + destination + ". " + e.getMessage(), e);
+            return false;
+        }
+    }
+}
@@ -28,15 +28,15 @@ import org.ballerinalang.natives.annotations.Argument;
 import org.ballerinalang.natives.annotations.BallerinaFunction;
 import org.ballerinalang.natives.annotations.ReturnType;
 import org.ballerinalang.net.jms.Constants;
-import org.ballerinalang.net.jms.JMSUtils;
+import org.ballerinalang.net.jms.JMSClientConfig;
+import org.ballerinalang.net.jms.JMSClientConnectorRegistry;
 import org.ballerinalang.util.exceptions.BallerinaException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.transport.jms.contract.JMSClientConnector;
 import org.wso2.carbon.transport.jms.exception.JMSConnectorException;
-import org.wso2.carbon.transport.jms.impl.JMSConnectorFactoryImpl;
 import org.wso2.carbon.transport.jms.utils.JMSConstants;
 
-import java.util.Map;
 import javax.jms.Message;
 
 /**
@@ -53,13 +53,19 @@ public class CreateBytesMessage extends AbstractNativeFunction {
     public BValue[] execute(Context context) {
 
         BStruct propertiesStruct = ((BStruct) this.getRefArgument(context, 0));
-        Map<String, String> propertyMap = JMSUtils.preProcessJmsConfig(propertiesStruct);
+        JMSClientConfig clientConfig = JMSClientConfig.fromStruct(propertiesStruct);
 
         Message jmsMessage = null;
 
+        JMSClientConnectorRegistry registry = JMSClientConnectorRegistry.getInstance();
+        String registryKey = clientConfig.getRegistryKey();
         try {
-            jmsMessage = new JMSConnectorFactoryImpl().createClientConnector(propertyMap)
-                    .createMessage(JMSConstants.BYTES_MESSAGE_TYPE);
+            JMSClientConnector jmsClientConnector = registry.acquire(registryKey, clientConfig.getProperties());
+            try {
+                jmsMessage = jmsClientConnector.createMessage(JMSConstants.BYTES_MESSAGE_TYPE);
+            } finally {
+                registry.release(registryKey);
+            }
         } catch (JMSConnectorException e) {
             throw new BallerinaException("Failed to create message. " + e.getMessage(), e, context);
         }
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.nativeimpl;
+
+import org.ballerinalang.bre.Context;
+import org.ballerinalang.model.types.TypeKind;
+import org.ballerinalang.model.values.BInteger;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.natives.AbstractNativeFunction;
+import org.ballerinalang.natives.annotations.Argument;
+import org.ballerinalang.natives.annotations.BallerinaFunction;
+import org.ballerinalang.natives.annotations.ReturnType;
+import org.ballerinalang.net.jms.JMSReconnectionManager;
+import org.ballerinalang.util.exceptions.BallerinaException;
+
+/**
+ * Get the reconnection statistics of a running JMS service.
+ */
+@BallerinaFunction(
+        packageName = "ballerina.net.jms",
+        functionName = "getReconnectionStats",
+        args = {@Argument(name = "serviceName", type = TypeKind.STRING)},
+        returnType = {@ReturnType(type = TypeKind.INT), @ReturnType(type = TypeKind.INT),
+                      @ReturnType(type = TypeKind.INT)},
+        isPublic = true
+)
+public class GetReconnectionStats extends AbstractNativeFunction {
+
+    public BValue[] execute(Context context) {
+        String serviceName = this.getStringArgument(context, 0);
+        JMSReconnectionManager reconnectionManager = JMSReconnectionManager.get(serviceName);
+        if (reconnectionManager == null) {
+            throw new BallerinaException("No JMS service named " + serviceName + " is running", context);
+        }
+        return this.getBValues(new BInteger(reconnectionManager.getReconnectAttempts()),
+                new BInteger(reconnectionManager.getRecoveries()),
+                new BInteger(reconnectionManager.getLastRecoveryTime()));
+    }
+}
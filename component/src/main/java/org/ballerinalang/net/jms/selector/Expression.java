@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.selector;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Compiled node of a message selector.
+ * <p>
+ * A node evaluates to a {@link String}, a {@link Number}, {@link Boolean#TRUE} or {@link Boolean#FALSE}, or to
+ * {@code null} for an unknown value. Conditions only ever return the shared {@link Boolean} constants, while numeric
+ * values are boxed.
+ *
+ * @since 0.95
+ */
+@FunctionalInterface
+interface Expression {
+
+    Object evaluate(Message message) throws JMSException;
+}
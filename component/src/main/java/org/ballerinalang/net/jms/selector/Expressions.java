@@ -0,0 +1,256 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.selector;
+
+import java.util.Set;
+import javax.jms.DeliveryMode;
+import javax.jms.Message;
+
+/**
+ * Factory of the compiled nodes of a message selector.
+ *
+ * @since 0.95
+ */
+final class Expressions {
+
+    static final int EQUAL = 0;
+    static final int NOT_EQUAL = 1;
+    static final int LESS = 2;
+    static final int LESS_OR_EQUAL = 3;
+    static final int GREATER = 4;
+    static final int GREATER_OR_EQUAL = 5;
+
+    static final int ADD = 0;
+    static final int SUBTRACT = 1;
+    static final int MULTIPLY = 2;
+    static final int DIVIDE = 3;
+
+    private static final String PERSISTENT = "PERSISTENT";
+    private static final String NON_PERSISTENT = "NON_PERSISTENT";
+
+    private Expressions() {
+    }
+
+    static Expression literal(Object value) {
+        return message -> value;
+    }
+
+    /**
+     * Read a header of the message, or a property for any other identifier.
+     */
+    static Expression identifier(String name) {
+        switch (name) {
+            case "JMSDeliveryMode":
+                return message -> message.getJMSDeliveryMode() == DeliveryMode.PERSISTENT ? PERSISTENT
+                        : NON_PERSISTENT;
+            case "JMSPriority":
+                // Priorities are within the range of the cached Integer instances
+                return message -> Integer.valueOf(message.getJMSPriority());
+            case "JMSMessageID":
+                return Message::getJMSMessageID;
+            case "JMSTimestamp":
+                return message -> message.getJMSTimestamp();
+            case "JMSCorrelationID":
+                return Message::getJMSCorrelationID;
+            case "JMSType":
+                return Message::getJMSType;
+            default:
+                return message -> message.getObjectProperty(name);
+        }
+    }
+
+    static Expression and(Expression left, Expression right) {
+        return message -> {
+            Boolean leftValue = toBoolean(left.evaluate(message));
+            if (leftValue == Boolean.FALSE) {
+                return Boolean.FALSE;
+            }
+            Boolean rightValue = toBoolean(right.evaluate(message));
+            if (rightValue == Boolean.FALSE) {
+                return Boolean.FALSE;
+            }
+            return leftValue == Boolean.TRUE && rightValue == Boolean.TRUE ? Boolean.TRUE : null;
+        };
+    }
+
+    static Expression or(Expression left, Expression right) {
+        return message -> {
+            Boolean leftValue = toBoolean(left.evaluate(message));
+            if (leftValue == Boolean.TRUE) {
+                return Boolean.TRUE;
+            }
+            Boolean rightValue = toBoolean(right.evaluate(message));
+            if (rightValue == Boolean.TRUE) {
+                return Boolean.TRUE;
+            }
+            return leftValue == Boolean.FALSE && rightValue == Boolean.FALSE ? Boolean.FALSE : null;
+        };
+    }
+
+    static Expression not(Expression operand) {
+        return message -> negate(toBoolean(operand.evaluate(message)));
+    }
+
+    static Expression compare(int operator, Expression left, Expression right) {
+        return message -> {
+            Object leftValue = left.evaluate(message);
+            Object rightValue = right.evaluate(message);
+            if (leftValue == null || rightValue == null) {
+                return null;
+            }
+            if (leftValue instanceof Number && rightValue instanceof Number) {
+                return toBoolean(matches(operator, compareNumbers((Number) leftValue, (Number) rightValue)));
+            }
+            if (operator != EQUAL && operator != NOT_EQUAL || leftValue.getClass() != rightValue.getClass()) {
+                // Strings and booleans only support equality, and values of unlike types never compare
+                return Boolean.FALSE;
+            }
+            return toBoolean(leftValue.equals(rightValue) == (operator == EQUAL));
+        };
+    }
+
+    static Expression arithmetic(int operator, Expression left, Expression right) {
+        return message -> {
+            Object leftValue = left.evaluate(message);
+            Object rightValue = right.evaluate(message);
+            if (!(leftValue instanceof Number) || !(rightValue instanceof Number)) {
+                return null;
+            }
+            Number leftNumber = (Number) leftValue;
+            Number rightNumber = (Number) rightValue;
+            if (isIntegral(leftNumber) && isIntegral(rightNumber)) {
+                long x = leftNumber.longValue();
+                long y = rightNumber.longValue();
+                switch (operator) {
+                    case ADD:
+                        return x + y;
+                    case SUBTRACT:
+                        return x - y;
+                    case MULTIPLY:
+                        return x * y;
+                    default:
+                        return y == 0 ? null : (Object) (x / y);
+                }
+            }
+            double x = leftNumber.doubleValue();
+            double y = rightNumber.doubleValue();
+            switch (operator) {
+                case ADD:
+                    return x + y;
+                case SUBTRACT:
+                    return x - y;
+                case MULTIPLY:
+                    return x * y;
+                default:
+                    return x / y;
+            }
+        };
+    }
+
+    static Expression negative(Expression operand) {
+        return message -> {
+            Object value = operand.evaluate(message);
+            if (!(value instanceof Number)) {
+                return null;
+            }
+            Number number = (Number) value;
+            return isIntegral(number) ? (Object) (-number.longValue()) : (Object) (-number.doubleValue());
+        };
+    }
+
+    static Expression between(Expression value, Expression lowerBound, Expression upperBound, boolean negated) {
+        Expression between = and(compare(GREATER_OR_EQUAL, value, lowerBound),
+                compare(LESS_OR_EQUAL, value, upperBound));
+        return negated ? not(between) : between;
+    }
+
+    static Expression in(Expression identifier, Set<String> values, boolean negated) {
+        return message -> {
+            Object value = identifier.evaluate(message);
+            if (!(value instanceof String)) {
+                return null;
+            }
+            return toBoolean(values.contains(value) != negated);
+        };
+    }
+
+    static Expression like(Expression identifier, LikePattern pattern, boolean negated) {
+        return message -> {
+            Object value = identifier.evaluate(message);
+            if (!(value instanceof String)) {
+                return null;
+            }
+            return toBoolean(pattern.matches((String) value) != negated);
+        };
+    }
+
+    static Expression isNull(Expression identifier, boolean negated) {
+        return message -> toBoolean((identifier.evaluate(message) == null) != negated);
+    }
+
+    private static boolean matches(int operator, int comparison) {
+        switch (operator) {
+            case EQUAL:
+                return comparison == 0;
+            case NOT_EQUAL:
+                return comparison != 0;
+            case LESS:
+                return comparison < 0;
+            case LESS_OR_EQUAL:
+                return comparison <= 0;
+            case GREATER:
+                return comparison > 0;
+            default:
+                return comparison >= 0;
+        }
+    }
+
+    private static int compareNumbers(Number left, Number right) {
+        if (isIntegral(left) && isIntegral(right)) {
+            return Long.compare(left.longValue(), right.longValue());
+        }
+        return Double.compare(left.doubleValue(), right.doubleValue());
+    }
+
+    private static boolean isIntegral(Number number) {
+        return number instanceof Long || number instanceof Integer || number instanceof Short
+                || number instanceof Byte;
+    }
+
+    private static Boolean toBoolean(boolean value) {
+        return value ? Boolean.TRUE : Boolean.FALSE;
+    }
+
+    /**
+     * Map a value to the shared boolean constants, or to null if it is not a boolean.
+     */
+    private static Boolean toBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value ? Boolean.TRUE : Boolean.FALSE;
+        }
+        return null;
+    }
+
+    private static Boolean negate(Boolean value) {
+        if (value == null) {
+            return null;
+        }
+        return value ? Boolean.FALSE : Boolean.TRUE;
+    }
+}
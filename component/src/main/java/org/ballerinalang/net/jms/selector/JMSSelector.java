@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.selector;
+
+import javax.jms.InvalidSelectorException;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * {@code JMSSelector} is a JMS message selector evaluated in process, instead of by the broker.
+ * <p>
+ * The selector is parsed once, following the SQL-92 subset of the JMS specification, into a tree of compiled nodes
+ * which read the headers and properties of a message directly. Conditions evaluate to the shared {@link Boolean}
+ * constants and {@code IN} and {@code LIKE} match without a regular expression, but the nodes pass their values
+ * around as objects, so evaluation is not free of allocation: reading {@code JMSTimestamp}, and every result of an
+ * arithmetic operation or of negating a non-literal value, boxes a {@link Long} or a {@link Double}. Unknown values
+ * follow the three-valued logic of the specification, so a message matches only if the selector evaluates to true.
+ * <p>
+ * A compiled selector is immutable and may be shared between threads.
+ *
+ * @since 0.95
+ */
+public final class JMSSelector {
+
+    private final String selector;
+    private final Expression expression;
+
+    private JMSSelector(String selector, Expression expression) {
+        this.selector = selector;
+        this.expression = expression;
+    }
+
+    /**
+     * Compile the given selector.
+     *
+     * @param selector message selector
+     * @return the compiled selector
+     * @throws InvalidSelectorException if the selector is not valid
+     */
+    public static JMSSelector compile(String selector) throws InvalidSelectorException {
+        return new JMSSelector(selector, new SelectorParser(selector).parse());
+    }
+
+    /**
+     * @param message JMS message
+     * @return true if the selector evaluates to true for the message
+     * @throws JMSException if a header or a property of the message cannot be read
+     */
+    public boolean matches(Message message) throws JMSException {
+        return expression.evaluate(message) == Boolean.TRUE;
+    }
+
+    @Override
+    public String toString() {
+        return selector;
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.selector;
+
+import javax.jms.InvalidSelectorException;
+
+/**
+ * Compiled pattern of a {@code LIKE} condition, where {@code _} stands for any character and {@code %} for any
+ * sequence of characters. Matching walks the pattern and the value with a single backtracking point, hence it does
+ * not allocate, unlike a regular expression matcher.
+ *
+ * @since 0.95
+ */
+final class LikePattern {
+    private static final byte LITERAL = 0;
+    private static final byte ANY_CHARACTER = 1;
+    private static final byte ANY_SEQUENCE = 2;
+
+    private final char[] characters;
+    private final byte[] kinds;
+
+    /**
+     * @param pattern pattern of the condition
+     * @param escape  escape character of the pattern, or null if the pattern has none
+     * @throws InvalidSelectorException if the pattern ends with the escape character
+     */
+    LikePattern(String pattern, Character escape) throws InvalidSelectorException {
+        char[] patternCharacters = new char[pattern.length()];
+        byte[] patternKinds = new byte[pattern.length()];
+        int length = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (escape != null && c == escape) {
+                if (++i == pattern.length()) {
+                    throw new InvalidSelectorException("LIKE pattern '" + pattern + "' ends with its escape character");
+                }
+                patternCharacters[length] = pattern.charAt(i);
+                patternKinds[length++] = LITERAL;
+            } else {
+                patternCharacters[length] = c;
+                patternKinds[length++] = c == '%' ? ANY_SEQUENCE : c == '_' ? ANY_CHARACTER : LITERAL;
+            }
+        }
+        this.characters = new char[length];
+        this.kinds = new byte[length];
+        System.arraycopy(patternCharacters, 0, characters, 0, length);
+        System.arraycopy(patternKinds, 0, kinds, 0, length);
+    }
+
+    boolean matches(String value) {
+        int valueIndex = 0;
+        int patternIndex = 0;
+        int sequencePatternIndex = -1;
+        int sequenceValueIndex = 0;
+        while (valueIndex < value.length()) {
+            if (patternIndex < kinds.length && kinds[patternIndex] != ANY_SEQUENCE
+                    && (kinds[patternIndex] == ANY_CHARACTER || characters[patternIndex] == value.charAt(valueIndex))) {
+                valueIndex++;
+                patternIndex++;
+            } else if (patternIndex < kinds.length && kinds[patternIndex] == ANY_SEQUENCE) {
+                sequencePatternIndex = patternIndex++;
+                sequenceValueIndex = valueIndex;
+            } else if (sequencePatternIndex >= 0) {
+                // Let the last % swallow one more character and retry from there
+                patternIndex = sequencePatternIndex + 1;
+                valueIndex = ++sequenceValueIndex;
+            } else {
+                return false;
+            }
+        }
+        while (patternIndex < kinds.length && kinds[patternIndex] == ANY_SEQUENCE) {
+            patternIndex++;
+        }
+        return patternIndex == kinds.length;
+    }
+}
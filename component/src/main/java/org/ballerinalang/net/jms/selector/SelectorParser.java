@@ -0,0 +1,476 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.selector;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import javax.jms.InvalidSelectorException;
+
+/**
+ * Recursive descent parser of the JMS message selector syntax, which compiles a selector into {@link Expression}s.
+ * <p>
+ * Operator precedence, from the lowest: {@code OR}, {@code AND}, {@code NOT}, comparisons along with
+ * {@code BETWEEN}, {@code IN}, {@code LIKE} and {@code IS NULL}, {@code + -}, {@code * /}, unary {@code + -}.
+ *
+ * @since 0.95
+ */
+final class SelectorParser {
+
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList("NOT", "AND", "OR", "BETWEEN", "LIKE",
+            "IN", "IS", "NULL", "TRUE", "FALSE", "ESCAPE"));
+
+    private static final int TOKEN_EOF = 0;
+    private static final int TOKEN_IDENTIFIER = 1;
+    private static final int TOKEN_KEYWORD = 2;
+    private static final int TOKEN_STRING = 3;
+    private static final int TOKEN_NUMBER = 4;
+    private static final int TOKEN_OPERATOR = 5;
+
+    private static final int KIND_ANY = 0;
+    private static final int KIND_BOOLEAN = 1;
+    private static final int KIND_NUMERIC = 2;
+    private static final int KIND_STRING = 3;
+
+    private final String selector;
+    private int position;
+
+    private int tokenType;
+    private String tokenText;
+    private Object tokenValue;
+
+    SelectorParser(String selector) {
+        this.selector = selector;
+    }
+
+    Expression parse() throws InvalidSelectorException {
+        if (selector == null || selector.trim().isEmpty()) {
+            // An empty selector selects every message
+            return Expressions.literal(Boolean.TRUE);
+        }
+        next();
+        Node node = parseOr();
+        if (tokenType != TOKEN_EOF) {
+            throw error("Unexpected '" + tokenText + "'");
+        }
+        requireKind(node, KIND_BOOLEAN);
+        return node.expression;
+    }
+
+    private Node parseOr() throws InvalidSelectorException {
+        Node left = parseAnd();
+        while (acceptKeyword("OR")) {
+            Node right = parseAnd();
+            requireKind(left, KIND_BOOLEAN);
+            requireKind(right, KIND_BOOLEAN);
+            left = new Node(Expressions.or(left.expression, right.expression), KIND_BOOLEAN);
+        }
+        return left;
+    }
+
+    private Node parseAnd() throws InvalidSelectorException {
+        Node left = parseNot();
+        while (acceptKeyword("AND")) {
+            Node right = parseNot();
+            requireKind(left, KIND_BOOLEAN);
+            requireKind(right, KIND_BOOLEAN);
+            left = new Node(Expressions.and(left.expression, right.expression), KIND_BOOLEAN);
+        }
+        return left;
+    }
+
+    private Node parseNot() throws InvalidSelectorException {
+        if (acceptKeyword("NOT")) {
+            Node operand = parseNot();
+            requireKind(operand, KIND_BOOLEAN);
+            return new Node(Expressions.not(operand.expression), KIND_BOOLEAN);
+        }
+        return parsePredicate();
+    }
+
+    private Node parsePredicate() throws InvalidSelectorException {
+        Node left = parseAdditive();
+        if (tokenType == TOKEN_OPERATOR) {
+            int operator = getComparisonOperator(tokenText);
+            if (operator >= 0) {
+                next();
+                Node right = parseAdditive();
+                requireComparable(left, right, operator);
+                return new Node(Expressions.compare(operator, left.expression, right.expression), KIND_BOOLEAN);
+            }
+        }
+        if (acceptKeyword("IS")) {
+            boolean negated = acceptKeyword("NOT");
+            expectKeyword("NULL");
+            requireIdentifier(left, "IS NULL");
+            return new Node(Expressions.isNull(left.expression, negated), KIND_BOOLEAN);
+        }
+        boolean negated = acceptKeyword("NOT");
+        if (acceptKeyword("BETWEEN")) {
+            Node lowerBound = parseAdditive();
+            expectKeyword("AND");
+            Node upperBound = parseAdditive();
+            requireKind(left, KIND_NUMERIC);
+            requireKind(lowerBound, KIND_NUMERIC);
+            requireKind(upperBound, KIND_NUMERIC);
+            return new Node(Expressions.between(left.expression, lowerBound.expression, upperBound.expression,
+                    negated), KIND_BOOLEAN);
+        }
+        if (acceptKeyword("IN")) {
+            requireIdentifier(left, "IN");
+            return new Node(Expressions.in(left.expression, parseStringList(), negated), KIND_BOOLEAN);
+        }
+        if (acceptKeyword("LIKE")) {
+            requireIdentifier(left, "LIKE");
+            String pattern = expectString();
+            Character escape = null;
+            if (acceptKeyword("ESCAPE")) {
+                String escapeText = expectString();
+                if (escapeText.length() != 1) {
+                    throw error("ESCAPE should be a single character");
+                }
+                escape = escapeText.charAt(0);
+            }
+            return new Node(Expressions.like(left.expression, new LikePattern(pattern, escape), negated),
+                    KIND_BOOLEAN);
+        }
+        if (negated) {
+            throw error("Expected BETWEEN, IN or LIKE after NOT");
+        }
+        return left;
+    }
+
+    private Set<String> parseStringList() throws InvalidSelectorException {
+        expectOperator("(");
+        Set<String> values = new HashSet<>();
+        do {
+            values.add(expectString());
+        } while (acceptOperator(","));
+        expectOperator(")");
+        return values;
+    }
+
+    private Node parseAdditive() throws InvalidSelectorException {
+        Node left = parseMultiplicative();
+        while (tokenType == TOKEN_OPERATOR && ("+".equals(tokenText) || "-".equals(tokenText))) {
+            int operator = "+".equals(tokenText) ? Expressions.ADD : Expressions.SUBTRACT;
+            next();
+            Node right = parseMultiplicative();
+            left = arithmetic(operator, left, right);
+        }
+        return left;
+    }
+
+    private Node parseMultiplicative() throws InvalidSelectorException {
+        Node left = parseUnary();
+        while (tokenType == TOKEN_OPERATOR && ("*".equals(tokenText) || "/".equals(tokenText))) {
+            int operator = "*".equals(tokenText) ? Expressions.MULTIPLY : Expressions.DIVIDE;
+            next();
+            Node right = parseUnary();
+            left = arithmetic(operator, left, right);
+        }
+        return left;
+    }
+
+    private Node arithmetic(int operator, Node left, Node right) throws InvalidSelectorException {
+        requireKind(left, KIND_NUMERIC);
+        requireKind(right, KIND_NUMERIC);
+        return new Node(Expressions.arithmetic(operator, left.expression, right.expression), KIND_NUMERIC);
+    }
+
+    private Node parseUnary() throws InvalidSelectorException {
+        if (acceptOperator("+")) {
+            Node operand = parseUnary();
+            requireKind(operand, KIND_NUMERIC);
+            return operand;
+        }
+        if (acceptOperator("-")) {
+            if (tokenType == TOKEN_NUMBER) {
+                // Fold negative literals, so that they are not negated on every evaluation
+                Object value = tokenValue instanceof Long ? (Object) (-(Long) tokenValue)
+                        : (Object) (-(Double) tokenValue);
+                next();
+                return new Node(Expressions.literal(value), KIND_NUMERIC);
+            }
+            Node operand = parseUnary();
+            requireKind(operand, KIND_NUMERIC);
+            return new Node(Expressions.negative(operand.expression), KIND_NUMERIC);
+        }
+        return parsePrimary();
+    }
+
+    private Node parsePrimary() throws InvalidSelectorException {
+        switch (tokenType) {
+            case TOKEN_STRING: {
+                Node node = new Node(Expressions.literal(tokenValue), KIND_STRING);
+                next();
+                return node;
+            }
+            case TOKEN_NUMBER: {
+                Node node = new Node(Expressions.literal(tokenValue), KIND_NUMERIC);
+                next();
+                return node;
+            }
+            case TOKEN_IDENTIFIER: {
+                Node node = new Node(Expressions.identifier(tokenText), KIND_ANY);
+                node.identifier = true;
+                next();
+                return node;
+            }
+            case TOKEN_KEYWORD:
+                if (acceptKeyword("TRUE")) {
+                    return new Node(Expressions.literal(Boolean.TRUE), KIND_BOOLEAN);
+                }
+                if (acceptKeyword("FALSE")) {
+                    return new Node(Expressions.literal(Boolean.FALSE), KIND_BOOLEAN);
+                }
+                throw error("Unexpected " + tokenText);
+            case TOKEN_OPERATOR:
+                if (acceptOperator("(")) {
+                    Node node = parseOr();
+                    expectOperator(")");
+                    node.identifier = false;
+                    return node;
+                }
+                throw error("Unexpected '" + tokenText + "'");
+            default:
+                throw error("Unexpected end of the selector");
+        }
+    }
+
+    private static int getComparisonOperator(String operator) {
+        switch (operator) {
+            case "=":
+                return Expressions.EQUAL;
+            case "<>":
+                return Expressions.NOT_EQUAL;
+            case "<":
+                return Expressions.LESS;
+            case "<=":
+                return Expressions.LESS_OR_EQUAL;
+            case ">":
+                return Expressions.GREATER;
+            case ">=":
+                return Expressions.GREATER_OR_EQUAL;
+            default:
+                return -1;
+        }
+    }
+
+    private void requireKind(Node node, int kind) throws InvalidSelectorException {
+        if (node.kind != KIND_ANY && node.kind != kind) {
+            throw error("Expected a " + getKindName(kind) + " but found a " + getKindName(node.kind));
+        }
+    }
+
+    private void requireComparable(Node left, Node right, int operator) throws InvalidSelectorException {
+        if (left.kind != KIND_ANY && right.kind != KIND_ANY && left.kind != right.kind) {
+            throw error("Cannot compare a " + getKindName(left.kind) + " with a " + getKindName(right.kind));
+        }
+        if (operator != Expressions.EQUAL && operator != Expressions.NOT_EQUAL) {
+            requireKind(left, KIND_NUMERIC);
+            requireKind(right, KIND_NUMERIC);
+        }
+    }
+
+    private void requireIdentifier(Node node, String operator) throws InvalidSelectorException {
+        if (!node.identifier) {
+            throw error(operator + " can only be applied to an identifier");
+        }
+    }
+
+    private static String getKindName(int kind) {
+        switch (kind) {
+            case KIND_BOOLEAN:
+                return "condition";
+            case KIND_NUMERIC:
+                return "number";
+            case KIND_STRING:
+                return "string";
+            default:
+                return "value";
+        }
+    }
+
+    private boolean acceptKeyword(String keyword) throws InvalidSelectorException {
+        if (tokenType == TOKEN_KEYWORD && keyword.equals(tokenText)) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expectKeyword(String keyword) throws InvalidSelectorException {
+        if (!acceptKeyword(keyword)) {
+            throw error("Expected " + keyword);
+        }
+    }
+
+    private boolean acceptOperator(String operator) throws InvalidSelectorException {
+        if (tokenType == TOKEN_OPERATOR && operator.equals(tokenText)) {
+            next();
+            return true;
+        }
+        return false;
+    }
+
+    private void expectOperator(String operator) throws InvalidSelectorException {
+        if (!acceptOperator(operator)) {
+            throw error("Expected '" + operator + "'");
+        }
+    }
+
+    private String expectString() throws InvalidSelectorException {
+        if (tokenType != TOKEN_STRING) {
+            throw error("Expected a string literal");
+        }
+        String value = (String) tokenValue;
+        next();
+        return value;
+    }
+
+    /**
+     * Read the next token of the selector.
+     */
+    private void next() throws InvalidSelectorException {
+        while (position < selector.length() && Character.isWhitespace(selector.charAt(position))) {
+            position++;
+        }
+        tokenValue = null;
+        if (position == selector.length()) {
+            tokenType = TOKEN_EOF;
+            tokenText = "";
+            return;
+        }
+        int start = position;
+        char c = selector.charAt(position);
+        if (c == '\'') {
+            readString();
+        } else if (Character.isDigit(c) || c == '.' && position + 1 < selector.length()
+                && Character.isDigit(selector.charAt(position + 1))) {
+            readNumber();
+        } else if (Character.isJavaIdentifierStart(c)) {
+            while (position < selector.length() && Character.isJavaIdentifierPart(selector.charAt(position))) {
+                position++;
+            }
+            tokenText = selector.substring(start, position);
+            String upperCaseText = tokenText.toUpperCase(Locale.ENGLISH);
+            if (KEYWORDS.contains(upperCaseText)) {
+                tokenType = TOKEN_KEYWORD;
+                tokenText = upperCaseText;
+            } else {
+                tokenType = TOKEN_IDENTIFIER;
+            }
+        } else {
+            position++;
+            if ((c == '<' || c == '>') && position < selector.length()
+                    && (selector.charAt(position) == '=' || c == '<' && selector.charAt(position) == '>')) {
+                position++;
+            } else if ("=<>+-*/(),".indexOf(c) < 0) {
+                throw error("Unexpected character '" + c + "'");
+            }
+            tokenType = TOKEN_OPERATOR;
+            tokenText = selector.substring(start, position);
+        }
+    }
+
+    private void readString() throws InvalidSelectorException {
+        StringBuilder value = new StringBuilder();
+        int start = position++;
+        while (true) {
+            if (position == selector.length()) {
+                throw error("Unterminated string literal");
+            }
+            char c = selector.charAt(position++);
+            if (c == '\'') {
+                if (position < selector.length() && selector.charAt(position) == '\'') {
+                    value.append('\'');
+                    position++;
+                } else {
+                    break;
+                }
+            } else {
+                value.append(c);
+            }
+        }
+        tokenType = TOKEN_STRING;
+        tokenText = selector.substring(start, position);
+        tokenValue = value.toString();
+    }
+
+    private void readNumber() throws InvalidSelectorException {
+        int start = position;
+        boolean approximate = false;
+        while (position < selector.length() && Character.isDigit(selector.charAt(position))) {
+            position++;
+        }
+        if (position < selector.length() && selector.charAt(position) == '.') {
+            approximate = true;
+            position++;
+            while (position < selector.length() && Character.isDigit(selector.charAt(position))) {
+                position++;
+            }
+        }
+        if (position < selector.length() && (selector.charAt(position) == 'e' || selector.charAt(position) == 'E')) {
+            approximate = true;
+            position++;
+            if (position < selector.length() && (selector.charAt(position) == '+'
+                    || selector.charAt(position) == '-')) {
+                position++;
+            }
+            while (position < selector.length() && Character.isDigit(selector.charAt(position))) {
+                position++;
+            }
+        }
+        String number = selector.substring(start, position);
+        if (position < selector.length() && "lLfFdD".indexOf(selector.charAt(position)) >= 0) {
+            char suffix = Character.toUpperCase(selector.charAt(position++));
+            approximate = suffix != 'L';
+            if (suffix == 'L' && number.indexOf('.') >= 0) {
+                throw error("Invalid number " + selector.substring(start, position));
+            }
+        }
+        tokenType = TOKEN_NUMBER;
+        tokenText = selector.substring(start, position);
+        try {
+            tokenValue = approximate ? (Object) Double.parseDouble(number) : (Object) Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number " + tokenText);
+        }
+    }
+
+    private InvalidSelectorException error(String message) {
+        return new InvalidSelectorException(message + " at position " + position + " of selector " + selector);
+    }
+
+    /**
+     * Parsed sub expression along with the kind of value it evaluates to, for the checks done while parsing.
+     */
+    private static class Node {
+        private final Expression expression;
+        private final int kind;
+        private boolean identifier;
+
+        Node(Expression expression, int kind) {
+            this.expression = expression;
+            this.kind = kind;
+        }
+    }
+}
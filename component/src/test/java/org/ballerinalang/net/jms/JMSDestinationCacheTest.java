@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.jms.Queue;
+import javax.jms.Session;
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.spi.InitialContextFactory;
+
+/**
+ * Test cases for the destination cache of the client connectors.
+ */
+public class JMSDestinationCacheTest {
+
+    private static final AtomicInteger openedContexts = new AtomicInteger();
+    private static final AtomicInteger closedContexts = new AtomicInteger();
+
+    private final AtomicInteger createdQueues = new AtomicInteger();
+
+    @Test(description = "Test that the least recently used destination is evicted and the JNDI contexts are closed")
+    public void testEviction() throws Exception {
+        JMSDestinationCache cache = JMSDestinationCache.getInstance();
+        Map<String, String> properties = new HashMap<>();
+        properties.put(Context.INITIAL_CONTEXT_FACTORY, TestContextFactory.class.getName());
+        Session session = createSession();
+        cache.invalidate("recent");
+        cache.invalidate("bulk");
+        int openedBefore = openedContexts.get();
+        int closedBefore = closedContexts.get();
+
+        cache.getDestination("recent", properties, session, "recentQueue");
+        for (int i = 0; i < 1023; i++) {
+            cache.getDestination("bulk", properties, session, "bulkQueue" + i);
+        }
+        Assert.assertEquals(createdQueues.get(), 1024);
+        Assert.assertEquals(openedContexts.get() - openedBefore, 2);
+
+        cache.getDestination("recent", properties, session, "recentQueue");
+        cache.getDestination("bulk", properties, session, "bulkQueue1023");
+        Assert.assertEquals(createdQueues.get(), 1025);
+        cache.getDestination("recent", properties, session, "recentQueue");
+        Assert.assertEquals(createdQueues.get(), 1025, "The recently used destination is evicted");
+        cache.getDestination("bulk", properties, session, "bulkQueue0");
+        Assert.assertEquals(createdQueues.get(), 1026, "The least recently used destination is not evicted");
+
+        cache.invalidate("recent");
+        cache.invalidate("bulk");
+        Assert.assertEquals(closedContexts.get() - closedBefore, 2, "The JNDI contexts are not closed");
+    }
+
+    private Session createSession() {
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[] { Session.class },
+                (proxy, method, args) -> {
+                    if ("createQueue".equals(method.getName())) {
+                        createdQueues.incrementAndGet();
+                        return Proxy.newProxyInstance(Queue.class.getClassLoader(), new Class<?>[] { Queue.class },
+                                (queue, queueMethod, queueArgs) -> null);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Initial context factory whose contexts do not know any destination.
+     */
+    public static class TestContextFactory implements InitialContextFactory {
+
+        @Override
+        public Context getInitialContext(Hashtable<?, ?> environment) {
+            openedContexts.incrementAndGet();
+            return (Context) Proxy.newProxyInstance(Context.class.getClassLoader(), new Class<?>[] { Context.class },
+                    (proxy, method, args) -> {
+                        if ("lookup".equals(method.getName())) {
+                            throw new NameNotFoundException(String.valueOf(args[0]));
+                        }
+                        if ("close".equals(method.getName())) {
+                            closedContexts.incrementAndGet();
+                        }
+                        return null;
+                    });
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for draining the in-flight messages of a service.
+ */
+public class JMSDrainTrackerTest {
+
+    @Test(description = "Test that draining waits for the in-flight messages and then rejects new messages")
+    public void testDrain() throws Exception {
+        JMSDrainTracker drainTracker = new JMSDrainTracker();
+        Assert.assertTrue(drainTracker.enter());
+        CompletableFuture<Integer> drain = CompletableFuture.supplyAsync(() -> drainTracker.drain(10000));
+        Thread.sleep(100);
+        CompletableFuture<Boolean> heldBack = CompletableFuture.supplyAsync(drainTracker::enter);
+        Thread.sleep(100);
+        Assert.assertFalse(drain.isDone());
+        Assert.assertFalse(heldBack.isDone());
+
+        drainTracker.exit();
+        Assert.assertEquals(drain.get(5, TimeUnit.SECONDS).intValue(), 0);
+        Assert.assertFalse(heldBack.get(5, TimeUnit.SECONDS));
+        Assert.assertFalse(drainTracker.enter());
+    }
+
+    @Test(description = "Test that draining gives up on the in-flight messages after the timeout")
+    public void testDrainTimeout() {
+        JMSDrainTracker drainTracker = new JMSDrainTracker();
+        Assert.assertTrue(drainTracker.enter());
+        drainTracker.enterUnconditionally();
+        Assert.assertEquals(drainTracker.drain(50), 2);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.net.jms.nativeimpl.util.MockJMSMessage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Test cases for dropping duplicate JMS messages.
+ */
+public class JMSDuplicateFilterTest {
+
+    @Test(description = "Test that a key is a duplicate only within the window")
+    public void testWindow() {
+        JMSDuplicateFilter duplicateFilter = new JMSDuplicateFilter(Constants.DEFAULT_DEDUPLICATION_KEY, 1000, 16,
+                false);
+        Assert.assertFalse(duplicateFilter.isDuplicate("ID:1", 0));
+        Assert.assertFalse(duplicateFilter.isDuplicate("ID:2", 500));
+        Assert.assertTrue(duplicateFilter.isDuplicate("ID:1", 999));
+        Assert.assertFalse(duplicateFilter.isDuplicate("ID:1", 1000));
+        Assert.assertTrue(duplicateFilter.isDuplicate("ID:2", 1000));
+    }
+
+    @Test(description = "Test that the oldest keys are evicted once the filter is full")
+    public void testCapacity() {
+        JMSDuplicateFilter duplicateFilter = new JMSDuplicateFilter(Constants.DEFAULT_DEDUPLICATION_KEY, 60000, 100,
+                true);
+        for (int i = 0; i < 150; i++) {
+            Assert.assertFalse(duplicateFilter.isDuplicate("ID:" + i, i));
+        }
+        for (int i = 50; i < 150; i++) {
+            Assert.assertTrue(duplicateFilter.isDuplicate("ID:" + i, 200), "ID:" + i);
+        }
+        Assert.assertFalse(duplicateFilter.isDuplicate("ID:0", 200));
+    }
+
+    @Test(description = "Test that a forgotten key is accepted again and outlives its earlier entry")
+    public void testForget() {
+        JMSDuplicateFilter duplicateFilter = new JMSDuplicateFilter(Constants.DEFAULT_DEDUPLICATION_KEY, 60000, 2,
+                true);
+        Assert.assertFalse(duplicateFilter.isDuplicate("ID:1", 0));
+        duplicateFilter.forget("ID:1");
+        Assert.assertFalse(duplicateFilter.isDuplicate("ID:1", 1));
+        Assert.assertFalse(duplicateFilter.isDuplicate("ID:2", 2));
+        Assert.assertTrue(duplicateFilter.isDuplicate("ID:1", 3));
+    }
+
+    @Test(description = "Test deduplicating the messages by a message property")
+    public void testMessageProperty() throws JMSException {
+        JMSDuplicateFilter duplicateFilter = new JMSDuplicateFilter("orderId", 60000, 16, false);
+        Message message = new MockJMSMessage();
+        message.setStringProperty("orderId", "order-1");
+        Assert.assertFalse(duplicateFilter.isDuplicate(message));
+        Assert.assertTrue(duplicateFilter.isDuplicate(message));
+        Assert.assertFalse(duplicateFilter.isDuplicate(new MockJMSMessage()));
+        Assert.assertFalse(duplicateFilter.isDuplicate(new MockJMSMessage()));
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.connector.api.BallerinaConnectorException;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.ballerinalang.connector.api.ConnectorFutureListener;
+import org.ballerinalang.connector.api.Resource;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.net.jms.nativeimpl.util.MockJMSMessage;
+import org.ballerinalang.net.jms.nativeimpl.util.TestAcknowledgementCallback;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import javax.jms.Message;
+import javax.jms.Session;
+
+/**
+ * Test cases for the allocations of the inbound dispatch path.
+ */
+public class JMSInboundAllocationTest {
+
+    private static final int WARM_UP_MESSAGES = 20000;
+    private static final int MEASURED_MESSAGES = 100000;
+
+    /**
+     * Bytes the connector may allocate per message, besides the parameters of the resource which the engine keeps.
+     */
+    private static final long BYTES_PER_MESSAGE_BUDGET = 96;
+
+    @Test(description = "Test that dispatching a message stays within the allocation budget per message")
+    public void testInboundAllocationBudget() {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()) {
+            throw new SkipException("Thread allocation accounting is not supported by this JVM");
+        }
+        com.sun.management.ThreadMXBean allocationMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+
+        Resource resource = (Resource) Proxy.newProxyInstance(Resource.class.getClassLoader(),
+                new Class<?>[] { Resource.class }, (proxy, method, args) -> null);
+        ConnectorFuture completedFuture = new CompletedFuture();
+        JMSListenerImpl listener = new JMSListenerImpl(resource) {
+            @Override
+            ConnectorFuture submit(Resource targetResource, Message jmsMessage, Map<String, Object> properties) {
+                Assert.assertEquals(properties.get(Constants.JMS_SESSION_ACKNOWLEDGEMENT_MODE),
+                        Session.CLIENT_ACKNOWLEDGE);
+                return completedFuture;
+            }
+        };
+        Message jmsMessage = new MockJMSMessage();
+        TestAcknowledgementCallback jmsCallback = new TestAcknowledgementCallback(null);
+
+        for (int i = 0; i < WARM_UP_MESSAGES; i++) {
+            listener.onMessage(jmsMessage, jmsCallback);
+        }
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = allocationMXBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < MEASURED_MESSAGES; i++) {
+            listener.onMessage(jmsMessage, jmsCallback);
+        }
+        long bytesPerMessage = (allocationMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore)
+                / MEASURED_MESSAGES;
+
+        Assert.assertTrue(jmsCallback.isAcknowledged(), "JMS message is not acknowledged properly");
+        Assert.assertEquals(listener.drain(0), 0, "Messages are left in flight");
+        Assert.assertTrue(bytesPerMessage <= BYTES_PER_MESSAGE_BUDGET, "Dispatching allocated " + bytesPerMessage
+                + " bytes per message, the budget is " + BYTES_PER_MESSAGE_BUDGET);
+    }
+
+    /**
+     * Future of an invocation which is over as soon as it is listened to.
+     */
+    private static class CompletedFuture implements ConnectorFuture {
+
+        @Override
+        public void setConnectorFutureListener(ConnectorFutureListener listener) {
+            listener.notifySuccess();
+        }
+
+        @Override
+        public void notifySuccess() {
+            // the invocation is already over
+        }
+
+        @Override
+        public void notifyReply(BValue... response) {
+            // not used in jms
+        }
+
+        @Override
+        public void notifyFailure(BallerinaConnectorException ex) {
+            // the invocation is already over
+        }
+    }
+}
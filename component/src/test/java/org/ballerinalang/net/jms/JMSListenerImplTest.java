@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.connector.api.BallerinaConnectorException;
+import org.ballerinalang.connector.api.ConnectorFuture;
+import org.ballerinalang.connector.api.ConnectorFutureListener;
+import org.ballerinalang.connector.api.Resource;
+import org.ballerinalang.model.values.BValue;
+import org.ballerinalang.net.jms.nativeimpl.util.MockJMSMessage;
+import org.ballerinalang.net.jms.nativeimpl.util.TestAcknowledgementCallback;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Message;
+
+/**
+ * Test cases for the dispatch path of the JMS listener.
+ */
+public class JMSListenerImplTest {
+
+    private final List<PendingFuture> submittedFutures = new CopyOnWriteArrayList<>();
+
+    @Test(description = "Test that the messages of the auto acknowledgement modes are dispatched while draining")
+    public void testDrainWithoutCallback() throws Exception {
+        JMSListenerImpl listener = createListener();
+        listener.onMessage(new MockJMSMessage(), new TestAcknowledgementCallback(null));
+        Assert.assertEquals(submittedFutures.size(), 1);
+
+        CompletableFuture<Integer> drain = CompletableFuture.supplyAsync(() -> listener.drain(10000));
+        Thread.sleep(100);
+        CompletableFuture<Void> autoAcknowledged = CompletableFuture.runAsync(
+                () -> listener.onMessage(new MockJMSMessage(), null));
+        autoAcknowledged.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(submittedFutures.size(), 2, "The auto acknowledged message is not dispatched");
+        Assert.assertFalse(drain.isDone());
+
+        submittedFutures.forEach(PendingFuture::notifySuccess);
+        Assert.assertEquals(drain.get(5, TimeUnit.SECONDS).intValue(), 0);
+    }
+
+    @Test(description = "Test that a client acknowledged message is rejected once the service is drained")
+    public void testRejectAfterDrain() {
+        JMSListenerImpl listener = createListener();
+        Assert.assertEquals(listener.drain(0), 0);
+        TestAcknowledgementCallback jmsCallback = new TestAcknowledgementCallback(null);
+        listener.onMessage(new MockJMSMessage(), jmsCallback);
+        Assert.assertTrue(jmsCallback.isReseted(), "The message is not rejected");
+        Assert.assertTrue(submittedFutures.isEmpty());
+    }
+
+    @Test(description = "Test that the callback is informed when the invocation cannot be submitted")
+    public void testSubmitFailure() {
+        JMSListenerImpl listener = createFailingListener();
+        TestAcknowledgementCallback jmsCallback = new TestAcknowledgementCallback(null);
+        listener.onMessage(new MockJMSMessage(), jmsCallback);
+        Assert.assertTrue(jmsCallback.isReseted(), "The callback is not informed of the failure");
+        Assert.assertEquals(listener.drain(0), 0);
+    }
+
+    @Test(description = "Test that a submit failure of an auto acknowledged message reaches the provider",
+            expectedExceptions = IllegalStateException.class)
+    public void testSubmitFailureWithoutCallback() {
+        createFailingListener().onMessage(new MockJMSMessage(), null);
+    }
+
+    private JMSListenerImpl createFailingListener() {
+        Resource resource = (Resource) Proxy.newProxyInstance(Resource.class.getClassLoader(),
+                new Class<?>[] { Resource.class }, (proxy, method, args) -> null);
+        return new JMSListenerImpl(resource) {
+            @Override
+            ConnectorFuture submit(Resource targetResource, Message jmsMessage, Map<String, Object> properties) {
+                throw new IllegalStateException("Program is not running");
+            }
+        };
+    }
+
+    private JMSListenerImpl createListener() {
+        submittedFutures.clear();
+        Resource resource = (Resource) Proxy.newProxyInstance(Resource.class.getClassLoader(),
+                new Class<?>[] { Resource.class }, (proxy, method, args) -> null);
+        return new JMSListenerImpl(resource) {
+            @Override
+            ConnectorFuture submit(Resource targetResource, Message jmsMessage, Map<String, Object> properties) {
+                PendingFuture future = new PendingFuture();
+                submittedFutures.add(future);
+                return future;
+            }
+        };
+    }
+
+    /**
+     * Future of an invocation which is over once the test completes it.
+     */
+    private static class PendingFuture implements ConnectorFuture {
+        private volatile ConnectorFutureListener listener;
+
+        @Override
+        public void setConnectorFutureListener(ConnectorFutureListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void notifySuccess() {
+            listener.notifySuccess();
+        }
+
+        @Override
+        public void notifyReply(BValue... response) {
+            // not used in jms
+        }
+
+        @Override
+        public void notifyFailure(BallerinaConnectorException ex) {
+            listener.notifyFailure(ex);
+        }
+    }
+}
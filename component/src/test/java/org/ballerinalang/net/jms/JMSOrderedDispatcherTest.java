@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.net.jms.nativeimpl.util.MockJMSMessage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Test cases for the ordered lanes of a service.
+ */
+public class JMSOrderedDispatcherTest {
+
+    private final BlockingQueue<Map.Entry<String, Runnable>> startedDispatches = new LinkedBlockingQueue<>();
+
+    @Test(description = "Test that the messages of a key are dispatched one after the other in order")
+    public void testKeyOrder() throws Exception {
+        JMSOrderedDispatcher dispatcher = new JMSOrderedDispatcher(Constants.DEFAULT_ORDERING_KEY, 2);
+        for (int i = 0; i < 3; i++) {
+            dispatcher.dispatch(createMessage("a"), dispatch("a" + i));
+        }
+        for (int i = 0; i < 3; i++) {
+            Map.Entry<String, Runnable> startedDispatch = takeStartedDispatch();
+            Assert.assertEquals(startedDispatch.getKey(), "a" + i);
+            Assert.assertNull(startedDispatches.poll(100, TimeUnit.MILLISECONDS),
+                    "A dispatch of the key started before the previous one completed");
+            startedDispatch.getValue().run();
+        }
+    }
+
+    @Test(description = "Test that the lanes of different keys are dispatched in parallel")
+    public void testParallelLanes() throws Exception {
+        JMSOrderedDispatcher dispatcher = new JMSOrderedDispatcher(Constants.DEFAULT_ORDERING_KEY, 2);
+        // The hash codes of the keys pick different lanes
+        dispatcher.dispatch(createMessage("a"), dispatch("a"));
+        dispatcher.dispatch(createMessage("b"), dispatch("b"));
+        Map.Entry<String, Runnable> first = takeStartedDispatch();
+        Map.Entry<String, Runnable> second = takeStartedDispatch();
+        Assert.assertNotEquals(first.getKey(), second.getKey());
+        first.getValue().run();
+        second.getValue().run();
+    }
+
+    private Message createMessage(String key) throws JMSException {
+        Message message = new MockJMSMessage();
+        message.setStringProperty(Constants.DEFAULT_ORDERING_KEY, key);
+        return message;
+    }
+
+    private Consumer<Runnable> dispatch(String name) {
+        return completionHook -> startedDispatches.add(new AbstractMap.SimpleEntry<>(name, completionHook));
+    }
+
+    private Map.Entry<String, Runnable> takeStartedDispatch() throws InterruptedException {
+        Map.Entry<String, Runnable> startedDispatch = startedDispatches.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(startedDispatch, "No dispatch was started");
+        return startedDispatch;
+    }
+}
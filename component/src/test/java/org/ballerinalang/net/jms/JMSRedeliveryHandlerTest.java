@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.ballerinalang.net.jms.nativeimpl.util.MockJMSMessage;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.transport.jms.utils.JMSConstants;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Message;
+
+/**
+ * Test cases for the redeliveries of the failed messages of a service.
+ */
+public class JMSRedeliveryHandlerTest {
+
+    private static final String SERVICE_QUEUE = "orders";
+    private static final String DEAD_LETTER_QUEUE = "ordersDLQ";
+
+    private final List<Map.Entry<String, Message>> sentMessages = new CopyOnWriteArrayList<>();
+
+    @Test(description = "Test that a failed message is redispatched once its redelivery delay elapses")
+    public void testRedelivery() throws Exception {
+        JMSRedeliveryHandler redeliveryHandler = createHandler(10, 10, false);
+        CountDownLatch redispatched = new CountDownLatch(1);
+        Assert.assertTrue(redeliveryHandler.handleFailure(new MockJMSMessage(), 0, true, redispatched::countDown));
+        Assert.assertTrue(redispatched.await(5, TimeUnit.SECONDS), "The message is not redispatched");
+        Assert.assertTrue(sentMessages.isEmpty());
+    }
+
+    @Test(description = "Test that a message is dead lettered after its last redelivery")
+    public void testDeadLetter() {
+        JMSRedeliveryHandler redeliveryHandler = createHandler(10, 10, false);
+        Message jmsMessage = new MockJMSMessage();
+        Assert.assertTrue(redeliveryHandler.handleFailure(jmsMessage, 3, false, () -> Assert.fail("Redispatched")));
+        Assert.assertEquals(sentMessages.size(), 1);
+        Assert.assertEquals(sentMessages.get(0).getKey(), DEAD_LETTER_QUEUE);
+        Assert.assertSame(sentMessages.get(0).getValue(), jmsMessage);
+    }
+
+    @Test(description = "Test that the pending redeliveries are returned to the queue of the service on stop")
+    public void testReturnOnStop() throws Exception {
+        JMSRedeliveryHandler redeliveryHandler = createHandler(60000, 10, false);
+        CountDownLatch redispatched = new CountDownLatch(1);
+        Message jmsMessage = new MockJMSMessage();
+        Assert.assertTrue(redeliveryHandler.handleFailure(jmsMessage, 0, true, redispatched::countDown));
+        redeliveryHandler.stop();
+        Assert.assertEquals(sentMessages.size(), 1);
+        Assert.assertEquals(sentMessages.get(0).getKey(), SERVICE_QUEUE);
+        Assert.assertSame(sentMessages.get(0).getValue(), jmsMessage);
+        Assert.assertTrue(redeliveryHandler.handleFailure(new MockJMSMessage(), 0, true, redispatched::countDown));
+        Assert.assertEquals(sentMessages.size(), 2);
+        Assert.assertEquals(sentMessages.get(1).getKey(), DEAD_LETTER_QUEUE, "A stopped handler holds a message");
+        Assert.assertFalse(redispatched.await(100, TimeUnit.MILLISECONDS), "A returned message is redispatched");
+    }
+
+    @Test(description = "Test that the pending redeliveries of a topic service go to its dead letter queue on stop")
+    public void testTopicReturnOnStop() {
+        JMSRedeliveryHandler redeliveryHandler = createHandler(60000, 10, true);
+        Assert.assertTrue(redeliveryHandler.handleFailure(new MockJMSMessage(), 0, true, () -> { }));
+        redeliveryHandler.stop();
+        Assert.assertEquals(sentMessages.size(), 1);
+        Assert.assertEquals(sentMessages.get(0).getKey(), DEAD_LETTER_QUEUE);
+    }
+
+    @Test(description = "Test that the failed messages beyond the pending cap are left to the broker")
+    public void testPendingCap() {
+        JMSRedeliveryHandler redeliveryHandler = createHandler(60000, 1, false);
+        Assert.assertTrue(redeliveryHandler.handleFailure(new MockJMSMessage(), 0, true, () -> { }));
+        Assert.assertFalse(redeliveryHandler.handleFailure(new MockJMSMessage(), 0, true, () -> { }),
+                "A message held by the broker is taken over beyond the cap");
+        Assert.assertTrue(redeliveryHandler.handleFailure(new MockJMSMessage(), 0, false, () -> { }));
+        Assert.assertEquals(sentMessages.size(), 1, "A message acknowledged already is not dead lettered");
+        Assert.assertTrue(redeliveryHandler.handleFailure(new MockJMSMessage(), 1, false, () -> { }),
+                "A message taken over already is not held beyond the cap");
+        redeliveryHandler.stop();
+    }
+
+    private JMSRedeliveryHandler createHandler(long delay, int maxPendingRedeliveries, boolean topic) {
+        sentMessages.clear();
+        Map<String, String> properties = new HashMap<>();
+        properties.put(JMSConstants.PARAM_DESTINATION_NAME, SERVICE_QUEUE);
+        JMSRedeliveryPolicy redeliveryPolicy = new JMSRedeliveryPolicy(delay, 2.0, 60000, 3, DEAD_LETTER_QUEUE,
+                maxPendingRedeliveries);
+        return new JMSRedeliveryHandler("OrderService", redeliveryPolicy, properties, topic) {
+            @Override
+            void send(Map<String, String> clientProperties, Message jmsMessage, String destination) {
+                sentMessages.add(new AbstractMap.SimpleEntry<>(destination, jmsMessage));
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Test cases for the scheduling of the resource invocations across services.
+ */
+public class JMSServiceSchedulerTest {
+
+    private final BlockingQueue<Map.Entry<String, Runnable>> startedDispatches = new LinkedBlockingQueue<>();
+
+    @Test(description = "Test that the free slots are shared across the backlogged services as per their weights")
+    public void testWeightedScheduling() throws Exception {
+        JMSServiceScheduler scheduler = new JMSServiceScheduler(4);
+        JMSServiceScheduler.ServiceQueue blocker = scheduler.createQueue("blocker", 1, 0);
+        JMSServiceScheduler.ServiceQueue bulk = scheduler.createQueue("bulk", 1, 0);
+        JMSServiceScheduler.ServiceQueue latency = scheduler.createQueue("latency", 3, 0);
+        List<Runnable> runningHooks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            blocker.submit(dispatch("blocker"));
+            runningHooks.add(takeStartedDispatch().getValue());
+        }
+        for (int i = 0; i < 4; i++) {
+            bulk.submit(dispatch("bulk"));
+            latency.submit(dispatch("latency"));
+        }
+        Assert.assertTrue(startedDispatches.isEmpty());
+
+        StringBuilder startOrder = new StringBuilder();
+        for (int i = 0; i < 8; i++) {
+            runningHooks.remove(0).run();
+            Map.Entry<String, Runnable> startedDispatch = takeStartedDispatch();
+            startOrder.append(startedDispatch.getKey().charAt(0));
+            runningHooks.add(startedDispatch.getValue());
+        }
+        Assert.assertEquals(startOrder.toString(), "blllblbb");
+    }
+
+    @Test(description = "Test that a service at its permit budget holds its consumers without blocking others")
+    public void testPermitBudget() throws Exception {
+        JMSServiceScheduler scheduler = new JMSServiceScheduler(8);
+        JMSServiceScheduler.ServiceQueue bulk = scheduler.createQueue("bulk", 1, 2);
+        JMSServiceScheduler.ServiceQueue latency = scheduler.createQueue("latency", 1, 0);
+        for (int i = 0; i < 4; i++) {
+            bulk.submit(dispatch("bulk"));
+        }
+        Runnable bulkHook = takeStartedDispatch().getValue();
+        takeStartedDispatch();
+        Assert.assertEquals(bulk.getRunningCount(), 2);
+        CompletableFuture<Void> heldBack = CompletableFuture.runAsync(() -> {
+            try {
+                bulk.submit(dispatch("bulk"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        latency.submit(dispatch("latency"));
+        Assert.assertEquals(takeStartedDispatch().getKey(), "latency");
+        Thread.sleep(100);
+        Assert.assertFalse(heldBack.isDone());
+
+        bulkHook.run();
+        Assert.assertEquals(takeStartedDispatch().getKey(), "bulk");
+        heldBack.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(bulk.getRunningCount(), 2);
+    }
+
+    private Consumer<Runnable> dispatch(String serviceId) {
+        return completionHook -> startedDispatches.add(new AbstractMap.SimpleEntry<>(serviceId, completionHook));
+    }
+
+    private Map.Entry<String, Runnable> takeStartedDispatch() throws InterruptedException {
+        Map.Entry<String, Runnable> startedDispatch = startedDispatches.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(startedDispatch, "No dispatch was started");
+        return startedDispatch;
+    }
+}
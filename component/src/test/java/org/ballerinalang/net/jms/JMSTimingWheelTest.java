@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test cases for the timing wheel of the delayed tasks.
+ */
+public class JMSTimingWheelTest {
+
+    @Test(description = "Test that a task whose delay spans several rounds of the wheel runs once its delay elapsed")
+    public void testDelayOverRounds() throws Exception {
+        // 4 buckets of 10ms, hence a 100ms delay passes the bucket of its deadline twice before it expires
+        JMSTimingWheel timingWheel = new JMSTimingWheel(10, 4);
+        CompletableFuture<Long> shortRunTime = new CompletableFuture<>();
+        CompletableFuture<Long> longRunTime = new CompletableFuture<>();
+        long scheduleTime = System.nanoTime();
+        timingWheel.schedule(() -> shortRunTime.complete(System.nanoTime()), 20);
+        timingWheel.schedule(() -> longRunTime.complete(System.nanoTime()), 100);
+
+        long shortDelay = TimeUnit.NANOSECONDS.toMillis(shortRunTime.get(5, TimeUnit.SECONDS) - scheduleTime);
+        long longDelay = TimeUnit.NANOSECONDS.toMillis(longRunTime.get(5, TimeUnit.SECONDS) - scheduleTime);
+        Assert.assertTrue(shortDelay >= 20 && shortDelay < 1000, "Task ran after " + shortDelay + "ms");
+        Assert.assertTrue(longDelay >= 100 && longDelay < 1000, "Task ran after " + longDelay + "ms");
+    }
+
+    @Test(description = "Test that a cancelled task does not run and that a task which ran cannot be cancelled")
+    public void testCancel() throws Exception {
+        JMSTimingWheel timingWheel = new JMSTimingWheel(10, 4);
+        CountDownLatch cancelledRun = new CountDownLatch(1);
+        CountDownLatch run = new CountDownLatch(1);
+        JMSTimingWheel.Timeout cancelled = timingWheel.schedule(cancelledRun::countDown, 50);
+        JMSTimingWheel.Timeout expired = timingWheel.schedule(run::countDown, 10);
+
+        Assert.assertTrue(cancelled.cancel());
+        Assert.assertTrue(run.await(5, TimeUnit.SECONDS));
+        Assert.assertFalse(cancelledRun.await(200, TimeUnit.MILLISECONDS), "The cancelled task ran");
+        Assert.assertFalse(expired.cancel(), "A task which ran was cancelled");
+    }
+}
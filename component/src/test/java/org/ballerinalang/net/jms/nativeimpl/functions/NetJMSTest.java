@@ -35,6 +35,7 @@ import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
+import java.util.Arrays;
 import javax.jms.Session;
 
 /**
@@ -90,6 +91,30 @@ public class NetJMSTest {
         Assert.assertTrue(jmsCallback.isReseted(), "JMS message is not unacknowledged properly");
     }
 
+    @Test (description = "Test Ballerina native JMS Acknowledgement method for a batch of messages ")
+    public void testBatchAcknowledge() {
+        Context ctx = new Context(result.getProgFile());
+
+        TestAcknowledgementCallback firstCallback = new TestAcknowledgementCallback(null);
+        TestAcknowledgementCallback secondCallback = new TestAcknowledgementCallback(null);
+        BServerConnectorFuture connectorFuture = new BServerConnectorFuture();
+        ConnectorFutureListener futureListener = new JMSConnectorFutureListener(
+                Arrays.asList(firstCallback, secondCallback));
+        connectorFuture.setConnectorFutureListener(futureListener);
+
+        ctx.setConnectorFuture(connectorFuture);
+        ctx.setProperty(Constants.JMS_SESSION_ACKNOWLEDGEMENT_MODE, javax.jms.Session.CLIENT_ACKNOWLEDGE);
+
+        BStruct bStruct = ConnectorUtils
+                .createAndGetStruct(ctx, Constants.PROTOCOL_PACKAGE_JMS, Constants.JMS_MESSAGE_STRUCT_NAME);
+
+        BValue[] inputArgs = { bStruct, new BString("SUCCESS") };
+        BTestUtils.invoke(result, "testAcknowledge", inputArgs, ctx);
+
+        Assert.assertTrue(firstCallback.isAcknowledged() && secondCallback.isAcknowledged(),
+                "JMS message batch is not acknowledged properly");
+    }
+
     @Test (description = "Test Ballerina native JMS Transaction commit method ")
     public void testTransactionCommit() {
         Context ctx = new Context(result.getProgFile());
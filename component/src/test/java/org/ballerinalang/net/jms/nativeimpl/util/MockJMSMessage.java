@@ -176,7 +176,7 @@ public class MockJMSMessage implements Message {
 
     @Override
     public boolean propertyExists(String name) throws JMSException {
-        return false;
+        return getObjectProperty(name) != null;
     }
 
     @Override
@@ -221,7 +221,16 @@ public class MockJMSMessage implements Message {
 
     @Override
     public Object getObjectProperty(String name) throws JMSException {
-        return null;
+        if (stringPropertyMap.containsKey(name)) {
+            return stringPropertyMap.get(name);
+        }
+        if (integerPropertyMap.containsKey(name)) {
+            return integerPropertyMap.get(name);
+        }
+        if (booleanPropertyMap.containsKey(name)) {
+            return booleanPropertyMap.get(name);
+        }
+        return floatPropertyMap.get(name);
     }
 
     @Override
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.ballerinalang.net.jms.selector;
+
+import org.ballerinalang.net.jms.nativeimpl.util.MockJMSMessage;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import javax.jms.DeliveryMode;
+import javax.jms.InvalidSelectorException;
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Test cases for the in process JMS message selectors.
+ */
+public class JMSSelectorTest {
+    private Message message;
+
+    @BeforeClass
+    public void setup() throws JMSException {
+        message = new MockJMSMessage();
+        message.setJMSType("order");
+        message.setJMSPriority(7);
+        message.setJMSDeliveryMode(DeliveryMode.PERSISTENT);
+        message.setStringProperty("region", "eu-west");
+        message.setIntProperty("quantity", 12);
+        message.setFloatProperty("price", 2.5f);
+        message.setBooleanProperty("express", true);
+    }
+
+    @Test(description = "Test comparisons of headers and properties")
+    public void testComparisons() throws JMSException {
+        assertMatches("JMSType = 'order'", true);
+        assertMatches("JMSType <> 'order'", false);
+        assertMatches("JMSPriority > 5 AND JMSDeliveryMode = 'PERSISTENT'", true);
+        assertMatches("quantity >= 12 AND price < 3", true);
+        assertMatches("quantity * price = 30.0", true);
+        assertMatches("-quantity < -10", true);
+        assertMatches("express", true);
+        assertMatches("express = FALSE", false);
+    }
+
+    @Test(description = "Test BETWEEN, IN, LIKE and IS NULL conditions")
+    public void testPredicates() throws JMSException {
+        assertMatches("quantity BETWEEN 10 AND 20", true);
+        assertMatches("quantity NOT BETWEEN 10 AND 20", false);
+        assertMatches("region IN ('eu-west', 'eu-north')", true);
+        assertMatches("region NOT IN ('us-east')", true);
+        assertMatches("region LIKE 'eu-%'", true);
+        assertMatches("region LIKE 'eu_west'", true);
+        assertMatches("region LIKE '%north'", false);
+        assertMatches("region LIKE 'eu\\_%' ESCAPE '\\'", false);
+        assertMatches("missing IS NULL AND region IS NOT NULL", true);
+    }
+
+    @Test(description = "Test the three valued logic of unknown values")
+    public void testUnknownValues() throws JMSException {
+        assertMatches("missing = 1", false);
+        assertMatches("NOT (missing = 1)", false);
+        assertMatches("missing = 1 OR quantity = 12", true);
+        assertMatches("missing = 1 AND quantity = 13", false);
+        assertMatches("region = 12", false);
+    }
+
+    @Test(description = "Test that an empty selector matches every message")
+    public void testEmptySelector() throws JMSException {
+        assertMatches("", true);
+    }
+
+    @Test(description = "Test that invalid selectors are rejected",
+          expectedExceptions = InvalidSelectorException.class)
+    public void testInvalidSelector() throws InvalidSelectorException {
+        JMSSelector.compile("quantity > 'ten'");
+    }
+
+    @Test(description = "Test that unterminated selectors are rejected",
+          expectedExceptions = InvalidSelectorException.class)
+    public void testIncompleteSelector() throws InvalidSelectorException {
+        JMSSelector.compile("region IN ('eu-west'");
+    }
+
+    private void assertMatches(String selector, boolean expected) throws JMSException {
+        Assert.assertEquals(JMSSelector.compile(selector).matches(message), expected, selector);
+    }
+}